@@ -0,0 +1,220 @@
+package com.example.threadcontroller.model;
+
+import java.util.Objects;
+
+/**
+ * Configuration parameters for the thread pool autoscaler.
+ */
+public class AutoscalerConfiguration {
+    private int minPoolSize;
+    private int maxPoolSize;
+    private int scaleStep;
+    private long sampleIntervalMillis;
+    private long cooldownMillis;
+    private int scaleUpQueueDepth;
+    private int scaleDownQueueDepth;
+    private long targetQueueWaitMillis;
+    private double maxCpuLoad;
+    private double minThroughputGain;
+    private int scaleUpSamples;
+    private int scaleDownSamples;
+
+    /**
+     * Default constructor.
+     */
+    public AutoscalerConfiguration() {
+        // Default values
+        this.minPoolSize = 1;
+        this.maxPoolSize = 64;
+        this.scaleStep = 2;
+        this.sampleIntervalMillis = 1000;
+        this.cooldownMillis = 5000;
+        this.scaleUpQueueDepth = 100;
+        this.scaleDownQueueDepth = 0;
+        this.targetQueueWaitMillis = 100;
+        this.maxCpuLoad = 0.9;
+        this.minThroughputGain = 0.05;
+        this.scaleUpSamples = 3;
+        this.scaleDownSamples = 10;
+    }
+
+    /**
+     * Validates the configuration parameters.
+     *
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public void validate() {
+        if (minPoolSize <= 0) {
+            throw new IllegalArgumentException("Minimum pool size must be > 0");
+        }
+        if (maxPoolSize < minPoolSize) {
+            throw new IllegalArgumentException("Maximum pool size must be >= minimum pool size");
+        }
+        if (scaleStep <= 0) {
+            throw new IllegalArgumentException("Scale step must be > 0");
+        }
+        if (sampleIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sample interval must be > 0");
+        }
+        if (cooldownMillis < 0) {
+            throw new IllegalArgumentException("Cooldown must be >= 0");
+        }
+        if (scaleDownQueueDepth >= scaleUpQueueDepth) {
+            throw new IllegalArgumentException("Scale-down queue depth must be < scale-up queue depth");
+        }
+        if (targetQueueWaitMillis <= 0) {
+            throw new IllegalArgumentException("Target queue wait must be > 0");
+        }
+        if (maxCpuLoad <= 0 || maxCpuLoad > 1) {
+            throw new IllegalArgumentException("Maximum CPU load must be in (0, 1]");
+        }
+        if (minThroughputGain < 0) {
+            throw new IllegalArgumentException("Minimum throughput gain must be >= 0");
+        }
+        if (scaleUpSamples <= 0 || scaleDownSamples <= 0) {
+            throw new IllegalArgumentException("Sample counts must be > 0");
+        }
+    }
+
+    // Getters and setters
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getScaleStep() {
+        return scaleStep;
+    }
+
+    public void setScaleStep(int scaleStep) {
+        this.scaleStep = scaleStep;
+    }
+
+    public long getSampleIntervalMillis() {
+        return sampleIntervalMillis;
+    }
+
+    public void setSampleIntervalMillis(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+
+    public long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    public void setCooldownMillis(long cooldownMillis) {
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    public int getScaleUpQueueDepth() {
+        return scaleUpQueueDepth;
+    }
+
+    public void setScaleUpQueueDepth(int scaleUpQueueDepth) {
+        this.scaleUpQueueDepth = scaleUpQueueDepth;
+    }
+
+    public int getScaleDownQueueDepth() {
+        return scaleDownQueueDepth;
+    }
+
+    public void setScaleDownQueueDepth(int scaleDownQueueDepth) {
+        this.scaleDownQueueDepth = scaleDownQueueDepth;
+    }
+
+    public long getTargetQueueWaitMillis() {
+        return targetQueueWaitMillis;
+    }
+
+    public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+        this.targetQueueWaitMillis = targetQueueWaitMillis;
+    }
+
+    public double getMaxCpuLoad() {
+        return maxCpuLoad;
+    }
+
+    public void setMaxCpuLoad(double maxCpuLoad) {
+        this.maxCpuLoad = maxCpuLoad;
+    }
+
+    public double getMinThroughputGain() {
+        return minThroughputGain;
+    }
+
+    public void setMinThroughputGain(double minThroughputGain) {
+        this.minThroughputGain = minThroughputGain;
+    }
+
+    public int getScaleUpSamples() {
+        return scaleUpSamples;
+    }
+
+    public void setScaleUpSamples(int scaleUpSamples) {
+        this.scaleUpSamples = scaleUpSamples;
+    }
+
+    public int getScaleDownSamples() {
+        return scaleDownSamples;
+    }
+
+    public void setScaleDownSamples(int scaleDownSamples) {
+        this.scaleDownSamples = scaleDownSamples;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AutoscalerConfiguration that = (AutoscalerConfiguration) o;
+        return minPoolSize == that.minPoolSize &&
+                maxPoolSize == that.maxPoolSize &&
+                scaleStep == that.scaleStep &&
+                sampleIntervalMillis == that.sampleIntervalMillis &&
+                cooldownMillis == that.cooldownMillis &&
+                scaleUpQueueDepth == that.scaleUpQueueDepth &&
+                scaleDownQueueDepth == that.scaleDownQueueDepth &&
+                targetQueueWaitMillis == that.targetQueueWaitMillis &&
+                Double.compare(maxCpuLoad, that.maxCpuLoad) == 0 &&
+                Double.compare(minThroughputGain, that.minThroughputGain) == 0 &&
+                scaleUpSamples == that.scaleUpSamples &&
+                scaleDownSamples == that.scaleDownSamples;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minPoolSize, maxPoolSize, scaleStep, sampleIntervalMillis, cooldownMillis,
+                scaleUpQueueDepth, scaleDownQueueDepth, targetQueueWaitMillis, maxCpuLoad, minThroughputGain,
+                scaleUpSamples, scaleDownSamples);
+    }
+
+    @Override
+    public String toString() {
+        return "AutoscalerConfiguration{" +
+                "minPoolSize=" + minPoolSize +
+                ", maxPoolSize=" + maxPoolSize +
+                ", scaleStep=" + scaleStep +
+                ", sampleIntervalMillis=" + sampleIntervalMillis +
+                ", cooldownMillis=" + cooldownMillis +
+                ", scaleUpQueueDepth=" + scaleUpQueueDepth +
+                ", scaleDownQueueDepth=" + scaleDownQueueDepth +
+                ", targetQueueWaitMillis=" + targetQueueWaitMillis +
+                ", maxCpuLoad=" + maxCpuLoad +
+                ", minThroughputGain=" + minThroughputGain +
+                ", scaleUpSamples=" + scaleUpSamples +
+                ", scaleDownSamples=" + scaleDownSamples +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of execution engines available for platform thread pools.
+ */
+public enum ExecutorEngine {
+    /**
+     * Fixed pool of threads sharing a single task queue.
+     */
+    FIXED,
+
+    /**
+     * Work-stealing pool with a deque per worker thread.
+     */
+    WORK_STEALING,
+
+    /**
+     * Pool that grows to the maximum size before queueing and reaps idle threads above core.
+     */
+    ELASTIC,
+
+    /**
+     * One worker thread per shard, each with its own queue, routing tasks by key hash or round-robin.
+     */
+    SHARDED,
+
+    /**
+     * One worker thread per local queue, placing each task on the shorter of two randomly sampled queues.
+     */
+    TWO_CHOICES
+}
@@ -0,0 +1,16 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of policies for submissions that arrive while a concurrency limit is reached.
+ */
+public enum OverloadPolicy {
+    /**
+     * Excess submissions wait in FIFO order until a slot frees up.
+     */
+    QUEUE,
+
+    /**
+     * Excess submissions are rejected immediately.
+     */
+    REJECT
+}
@@ -0,0 +1,16 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of what a fixed-rate schedule does when a run finishes after the next run was due.
+ */
+public enum OverrunPolicy {
+    /**
+     * Runs every missed execution back to back until the schedule is caught up.
+     */
+    CATCH_UP,
+
+    /**
+     * Drops the missed executions and resumes at the next period boundary that is still ahead.
+     */
+    SKIP
+}
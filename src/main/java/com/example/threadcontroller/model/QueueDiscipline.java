@@ -0,0 +1,31 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of the orders in which a task queue hands out tasks.
+ */
+public enum QueueDiscipline {
+    /**
+     * First in, first out.
+     */
+    FIFO,
+
+    /**
+     * Highest priority first, with aging so low-priority tasks cannot starve.
+     */
+    PRIORITY,
+
+    /**
+     * Earliest deadline first; tasks without a deadline run after all tasks that have one.
+     */
+    DEADLINE,
+
+    /**
+     * Weighted fair queuing across tenants, FIFO within a tenant.
+     */
+    FAIR,
+
+    /**
+     * First in, first out, switching to last in, first out while the queue is overloaded.
+     */
+    ADAPTIVE_LIFO
+}
@@ -2,21 +2,65 @@ package com.example.threadcontroller.model;
 
 import com.example.threadcontroller.util.Logger;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Represents a unit of work to be executed by the thread controller.
+ *
+ * <p>A task's identity is either a string ID or, in {@link TaskIdMode#SEQUENTIAL} mode, a long
+ * numeric ID whose string form is only built when {@link #getId()} is called. A string ID in the
+ * canonical decimal form of a positive long, such as {@code "42"}, is stored as that number too, so
+ * {@code new Task("42")} and {@code new Task(42L)} are the same task. Numeric IDs given to a task
+ * move {@link TaskIdGenerator} past them, so a generated ID never repeats one supplied earlier.</p>
+ *
+ * <p>Lifecycle timestamps are stored as {@link System#nanoTime()} values, so they are monotonic and
+ * cost no allocation. The {@link Instant} accessors convert through a wall-clock anchor taken when
+ * the class is loaded, and a timestamp of 0 means the event has not happened.</p>
+ *
+ * <p>The status is a single int word holding the {@link TaskStatus} ordinal and is only changed by
+ * compare-and-set, so threads racing to move a task out of the same state cannot both succeed.
+ * Finish a task with {@link #tryComplete(Object)} or {@link #tryFail(Exception)}: they claim the
+ * task with a finishing bit in the same word, write the outcome and only then publish the terminal
+ * status, so a losing thread never overwrites the winner's result and readers who see
+ * {@link TaskStatus#COMPLETED} or {@link TaskStatus#FAILED} also see it.</p>
  */
 public class Task {
     private static final Logger logger = new Logger(Task.class);
 
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    // Set while the winner of a terminal transition writes the outcome; the ordinal stays below it
+    private static final int FINISHING = 1 << 8;
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Task.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final Instant ANCHOR_INSTANT = Instant.now();
+    private static final long ANCHOR_NANOS = System.nanoTime();
+
+    private static volatile TaskIdMode defaultIdMode = TaskIdMode.UUID;
+
     private String id;
-    private Instant submissionTime;
-    private Instant startTime;
-    private Instant completionTime;
-    private TaskStatus status;
+    private long numericId;
+    private long submissionTimeNanos;
+    private long startTimeNanos;
+    private long completionTimeNanos;
+    // Ordinal of the current TaskStatus plus the FINISHING bit; the zero default is PENDING
+    private volatile int state;
+    private TaskPriority priority;
+    private Instant deadline;
+    private String tenant;
+    private long enqueueTimeNanos;
     private Object result;
     private Exception exception;
 
@@ -24,10 +68,14 @@ public class Task {
      * Default constructor.
      */
     public Task() {
-        this.id = UUID.randomUUID().toString();
-        this.submissionTime = Instant.now();
-        this.status = TaskStatus.PENDING;
-        logger.debug("Created new task with ID: {}", id);
+        if (defaultIdMode == TaskIdMode.SEQUENTIAL) {
+            this.numericId = TaskIdGenerator.nextId();
+        } else {
+            this.id = UUID.randomUUID().toString();
+        }
+        this.submissionTimeNanos = System.nanoTime();
+        this.priority = TaskPriority.NORMAL;
+        logger.debug("Created new task with ID: {}", id != null ? id : numericId);
     }
 
     /**
@@ -37,57 +85,391 @@ public class Task {
      */
     public Task(String id) {
         this.id = id;
-        this.submissionTime = Instant.now();
-        this.status = TaskStatus.PENDING;
+        this.numericId = parseNumericId(id);
+        if (numericId != 0) {
+            TaskIdGenerator.advancePast(numericId);
+        }
+        this.submissionTimeNanos = System.nanoTime();
+        this.priority = TaskPriority.NORMAL;
         logger.debug("Created new task with ID: {}", id);
     }
 
+    /**
+     * Constructor with a numeric ID.
+     *
+     * @param numericId the unique positive identifier for the task
+     */
+    public Task(long numericId) {
+        if (numericId <= 0) {
+            throw new IllegalArgumentException("Numeric task ID must be positive");
+        }
+        this.numericId = numericId;
+        TaskIdGenerator.advancePast(numericId);
+        this.submissionTimeNanos = System.nanoTime();
+        this.priority = TaskPriority.NORMAL;
+        logger.debug("Created new task with ID: {}", numericId);
+    }
+
+    /**
+     * Sets how tasks created with the default constructor get their ID.
+     *
+     * @param mode the ID mode
+     */
+    public static void setDefaultIdMode(TaskIdMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("ID mode cannot be null");
+        }
+        defaultIdMode = mode;
+    }
+
+    /**
+     * Gets how tasks created with the default constructor get their ID.
+     *
+     * @return the ID mode
+     */
+    public static TaskIdMode getDefaultIdMode() {
+        return defaultIdMode;
+    }
+
     // Getters and setters
 
+    /**
+     * Gets the task ID as a string, building it from the numeric ID on first use.
+     *
+     * @return the task ID
+     */
     public String getId() {
-        return id;
+        String value = id;
+        if (value == null && numericId != 0) {
+            // Strings are immutable, so a racing duplicate build is harmless
+            value = Long.toString(numericId);
+            id = value;
+        }
+        return value;
     }
 
     public void setId(String id) {
         this.id = id;
+        this.numericId = parseNumericId(id);
+        if (numericId != 0) {
+            TaskIdGenerator.advancePast(numericId);
+        }
+    }
+
+    /**
+     * Parses a string ID that is the canonical decimal form of a positive long.
+     *
+     * @param id the string ID, may be null
+     * @return the numeric ID, or 0 if the string is anything else (signs, leading zeros, overflow)
+     */
+    public static long parseNumericId(String id) {
+        if (id == null || id.isEmpty() || id.length() > 19 || id.charAt(0) == '0') {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+            if (value < 0) {
+                return 0;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Gets the numeric task ID.
+     *
+     * @return the numeric ID, or 0 if the task is identified by a string ID
+     */
+    public long getNumericId() {
+        return numericId;
+    }
+
+    /**
+     * Checks whether the task is identified by a numeric ID.
+     *
+     * @return true if the task has a numeric ID
+     */
+    public boolean hasNumericId() {
+        return numericId != 0;
     }
 
     public Instant getSubmissionTime() {
-        return submissionTime;
+        return toInstant(submissionTimeNanos);
     }
 
     public void setSubmissionTime(Instant submissionTime) {
-        this.submissionTime = submissionTime;
+        this.submissionTimeNanos = toNanos(submissionTime);
     }
 
     public Instant getStartTime() {
-        return startTime;
+        return toInstant(startTimeNanos);
     }
 
     public void setStartTime(Instant startTime) {
-        this.startTime = startTime;
+        this.startTimeNanos = toNanos(startTime);
     }
 
     public Instant getCompletionTime() {
-        return completionTime;
+        return toInstant(completionTimeNanos);
     }
 
     public void setCompletionTime(Instant completionTime) {
-        this.completionTime = completionTime;
+        this.completionTimeNanos = toNanos(completionTime);
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the task was submitted.
+     *
+     * @return the submission time, or 0 if it is not set
+     */
+    public long getSubmissionTimeNanos() {
+        return submissionTimeNanos;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} at which the task was submitted.
+     *
+     * @param submissionTimeNanos the submission time
+     */
+    public void setSubmissionTimeNanos(long submissionTimeNanos) {
+        this.submissionTimeNanos = submissionTimeNanos;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the task started running.
+     *
+     * @return the start time, or 0 if the task has not started
+     */
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} at which the task started running.
+     *
+     * @param startTimeNanos the start time
+     */
+    public void setStartTimeNanos(long startTimeNanos) {
+        this.startTimeNanos = startTimeNanos;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the task completed or failed.
+     *
+     * @return the completion time, or 0 if the task has not finished
+     */
+    public long getCompletionTimeNanos() {
+        return completionTimeNanos;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} at which the task completed or failed.
+     *
+     * @param completionTimeNanos the completion time
+     */
+    public void setCompletionTimeNanos(long completionTimeNanos) {
+        this.completionTimeNanos = completionTimeNanos;
+    }
+
+    /**
+     * Gets how long the task waited between submission and starting to run.
+     *
+     * @return the queue wait in nanoseconds, or -1 if the task has not started
+     */
+    public long getQueueWaitNanos() {
+        return elapsed(submissionTimeNanos, startTimeNanos);
+    }
+
+    /**
+     * Gets how long the task ran.
+     *
+     * @return the execution time in nanoseconds, or -1 if the task has not both started and finished
+     */
+    public long getExecutionNanos() {
+        return elapsed(startTimeNanos, completionTimeNanos);
+    }
+
+    /**
+     * Gets the time from submission to completion, including queue wait. Tasks shed before
+     * running have an end-to-end time but no execution time.
+     *
+     * @return the end-to-end time in nanoseconds, or -1 if the task has not finished
+     */
+    public long getEndToEndNanos() {
+        return elapsed(submissionTimeNanos, completionTimeNanos);
+    }
+
+    private static long elapsed(long fromNanos, long toNanos) {
+        return fromNanos == 0 || toNanos == 0 ? -1 : toNanos - fromNanos;
+    }
+
+    private static Instant toInstant(long nanos) {
+        return nanos == 0 ? null : ANCHOR_INSTANT.plusNanos(nanos - ANCHOR_NANOS);
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant == null ? 0 : ANCHOR_NANOS + Duration.between(ANCHOR_INSTANT, instant).toNanos();
     }
 
     public TaskStatus getStatus() {
-        return status;
+        return STATUSES[state & ~FINISHING];
     }
 
+    /**
+     * Moves the task to a new status, throwing if the move is not allowed.
+     *
+     * @param status the target status
+     * @throws IllegalArgumentException if the task cannot move from its current status to the target
+     */
     public void setStatus(TaskStatus status) {
-        // Validate state transitions
-        if (!isValidTransition(this.status, status)) {
+        if (!tryTransition(status)) {
             throw new IllegalArgumentException(
-                String.format("Invalid state transition from %s to %s", this.status, status));
+                String.format("Invalid state transition from %s to %s", getStatus(), status));
+        }
+    }
+
+    /**
+     * Atomically moves the task to a new status if the move is valid from its current status.
+     * When several threads race to leave the same status, exactly one succeeds.
+     *
+     * @param status the target status
+     * @return true if this call made the transition, false if it is not allowed from the current status
+     */
+    public boolean tryTransition(TaskStatus status) {
+        if (status == null) {
+            return false;
+        }
+        if (!claim(status, false)) {
+            return false;
+        }
+        logger.debug("Task {} status changed to {}", id != null ? id : numericId, status);
+        return true;
+    }
+
+    /**
+     * Atomically completes the task with a result if it can still move to
+     * {@link TaskStatus#COMPLETED}. The result and completion time are only written by the caller
+     * that wins the transition.
+     *
+     * @param result the task result, may be null
+     * @return true if this call completed the task, false if it had already finished
+     */
+    public boolean tryComplete(Object result) {
+        if (!claim(TaskStatus.COMPLETED, true)) {
+            return false;
+        }
+        this.result = result;
+        finish(TaskStatus.COMPLETED);
+        return true;
+    }
+
+    /**
+     * Atomically fails the task with an exception if it can still move to
+     * {@link TaskStatus#FAILED}. The exception and completion time are only written by the caller
+     * that wins the transition.
+     *
+     * @param exception the failure cause
+     * @return true if this call failed the task, false if it had already finished
+     */
+    public boolean tryFail(Exception exception) {
+        if (!claim(TaskStatus.FAILED, true)) {
+            return false;
+        }
+        this.exception = exception;
+        finish(TaskStatus.FAILED);
+        return true;
+    }
+
+    /**
+     * Moves the task towards a status, or only sets the finishing bit when the caller still has to
+     * write the outcome before publishing the status with {@link #finish(TaskStatus)}.
+     */
+    private boolean claim(TaskStatus status, boolean finishing) {
+        while (true) {
+            int current = state;
+            // A task whose outcome is being written accepts no further transitions
+            if ((current & FINISHING) != 0 || !isValidTransition(STATUSES[current], status)) {
+                return false;
+            }
+            int next = finishing ? current | FINISHING : status.ordinal();
+            if (STATE.compareAndSet(this, current, next)) {
+                return true;
+            }
         }
-        this.status = status;
-        logger.debug("Task {} status changed to {}", id, status);
+    }
+
+    private void finish(TaskStatus status) {
+        if (completionTimeNanos == 0) {
+            completionTimeNanos = System.nanoTime();
+        }
+        // The volatile write publishes the outcome written by the claiming thread
+        state = status.ordinal();
+        logger.debug("Task {} status changed to {}", id != null ? id : numericId, status);
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority cannot be null");
+        }
+        this.priority = priority;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Gets the tenant the task belongs to, which fair queuing uses to share capacity.
+     *
+     * @return the tenant, or null if the task is untagged
+     */
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the task was last enqueued.
+     *
+     * @return the enqueue time, or 0 if the queue did not record one
+     */
+    public long getEnqueueTimeNanos() {
+        return enqueueTimeNanos;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} at which the task was enqueued.
+     *
+     * @param enqueueTimeNanos the enqueue time
+     */
+    public void setEnqueueTimeNanos(long enqueueTimeNanos) {
+        this.enqueueTimeNanos = enqueueTimeNanos;
+    }
+
+    /**
+     * Checks if the task's deadline has passed.
+     *
+     * @param now the current time
+     * @return true if the task has a deadline that is before now, false otherwise
+     */
+    public boolean isExpired(Instant now) {
+        return deadline != null && deadline.isBefore(now);
     }
 
     public Object getResult() {
@@ -113,7 +495,7 @@ public class Task {
      * @param to   the target state
      * @return true if the transition is valid, false otherwise
      */
-    private boolean isValidTransition(TaskStatus from, TaskStatus to) {
+    private static boolean isValidTransition(TaskStatus from, TaskStatus to) {
         switch (from) {
             case PENDING:
                 return to == TaskStatus.RUNNING || to == TaskStatus.FAILED;
@@ -132,22 +514,28 @@ public class Task {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
+        if (numericId != 0 || task.numericId != 0) {
+            return numericId == task.numericId;
+        }
         return Objects.equals(id, task.id);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return numericId != 0 ? Long.hashCode(numericId) : Objects.hash(id);
     }
 
     @Override
     public String toString() {
         return "Task{" +
-                "id='" + id + '\'' +
-                ", submissionTime=" + submissionTime +
-                ", startTime=" + startTime +
-                ", completionTime=" + completionTime +
-                ", status=" + status +
+                "id='" + getId() + '\'' +
+                ", submissionTime=" + getSubmissionTime() +
+                ", startTime=" + getStartTime() +
+                ", completionTime=" + getCompletionTime() +
+                ", status=" + getStatus() +
+                ", priority=" + priority +
+                ", deadline=" + deadline +
+                ", tenant=" + tenant +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.threadcontroller.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator of unique, positive long task IDs for {@link TaskIdMode#SEQUENTIAL}.
+ *
+ * <p>Each thread reserves a block of {@value #BLOCK_SIZE} IDs from a shared counter and hands them
+ * out from a thread-local cursor, so the shared counter is touched once per block instead of once
+ * per task. IDs from one thread are strictly increasing; IDs from different threads interleave by
+ * block, so the overall order only roughly follows creation time.</p>
+ *
+ * <p>Generated IDs share a key space with numeric IDs that callers supply, and the counter restarts
+ * with every process. {@link Task} therefore calls {@link #advancePast(long)} for every numeric ID
+ * it is given, including those the task journal reloads, so later generated IDs skip it. An ID
+ * above every reserved block only moves the counter; one below it also makes every thread abandon
+ * its current block. A supplied ID that was already generated is a duplicate like any other.</p>
+ */
+public final class TaskIdGenerator {
+    private static final int BLOCK_SIZE = 1024;
+
+    // Starts at 1 so that 0 can mean "no numeric ID"
+    private static final AtomicLong nextBlockStart = new AtomicLong(1);
+    // Bumped by advancePast so that threads drop blocks reserved before it
+    private static final AtomicLong generation = new AtomicLong(0);
+    private static final ThreadLocal<long[]> localBlock = ThreadLocal.withInitial(() -> new long[3]);
+
+    private TaskIdGenerator() {
+    }
+
+    /**
+     * Returns the next ID for the calling thread.
+     *
+     * @return a unique positive ID
+     */
+    public static long nextId() {
+        long[] block = localBlock.get();
+        long current = generation.get();
+        // block[0] is the next ID to hand out, block[1] the end of the reserved range and block[2]
+        // the generation it was reserved in
+        if (block[0] == block[1] || block[2] != current) {
+            block[0] = nextBlockStart.getAndAdd(BLOCK_SIZE);
+            block[1] = block[0] + BLOCK_SIZE;
+            block[2] = current;
+        }
+        return block[0]++;
+    }
+
+    /**
+     * Makes sure every ID handed out from now on is greater than the given one.
+     *
+     * @param id an ID that is already in use, for example one recovered from a previous process
+     */
+    public static void advancePast(long id) {
+        while (true) {
+            long next = nextBlockStart.get();
+            if (id < next) {
+                // A block reserved earlier may still cover the ID, so every thread reserves a fresh one
+                generation.incrementAndGet();
+                return;
+            }
+            // Every block reserved so far lies below next, so none of them covers the ID
+            if (nextBlockStart.compareAndSet(next, id + 1)) {
+                return;
+            }
+        }
+    }
+}
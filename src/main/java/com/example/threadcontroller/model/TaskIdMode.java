@@ -0,0 +1,18 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of the ways a task created without an explicit ID gets one.
+ */
+public enum TaskIdMode {
+    /**
+     * A random UUID string, unique across processes.
+     */
+    UUID,
+
+    /**
+     * A long from {@link TaskIdGenerator}, unique within the process; the string form is only built
+     * when it is asked for. The counter restarts with each process, and only components that reload
+     * IDs, such as the task journal, move it past the IDs they find.
+     */
+    SEQUENTIAL
+}
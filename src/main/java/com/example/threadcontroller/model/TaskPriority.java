@@ -0,0 +1,31 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of task priorities, from most to least urgent.
+ */
+public enum TaskPriority {
+    /**
+     * Must run before anything else.
+     */
+    CRITICAL,
+
+    /**
+     * Interactive work a caller is waiting on.
+     */
+    HIGH,
+
+    /**
+     * Default priority.
+     */
+    NORMAL,
+
+    /**
+     * Work that can wait behind normal tasks.
+     */
+    LOW,
+
+    /**
+     * Batch work that runs when nothing else is waiting.
+     */
+    BACKGROUND
+}
@@ -12,6 +12,11 @@ public class ThreadPoolConfiguration {
     private long keepAliveTime;
     private TimeUnit timeUnit;
     private ThreadType threadType;
+    private ExecutorEngine executorEngine;
+    private VirtualThreadMode virtualThreadMode;
+    private OverloadPolicy overloadPolicy;
+    // Work queue capacity of the fixed pool; 0 keeps the queue unbounded
+    private int queueCapacity;
 
     /**
      * Default constructor.
@@ -23,6 +28,10 @@ public class ThreadPoolConfiguration {
         this.keepAliveTime = 60;
         this.timeUnit = TimeUnit.SECONDS;
         this.threadType = ThreadType.PLATFORM;
+        this.executorEngine = ExecutorEngine.FIXED;
+        this.virtualThreadMode = VirtualThreadMode.UNBOUNDED;
+        this.overloadPolicy = OverloadPolicy.QUEUE;
+        this.queueCapacity = 0;
     }
 
     /**
@@ -40,6 +49,10 @@ public class ThreadPoolConfiguration {
         this.keepAliveTime = keepAliveTime;
         this.timeUnit = timeUnit;
         this.threadType = threadType;
+        this.executorEngine = ExecutorEngine.FIXED;
+        this.virtualThreadMode = VirtualThreadMode.UNBOUNDED;
+        this.overloadPolicy = OverloadPolicy.QUEUE;
+        this.queueCapacity = 0;
         validate();
     }
 
@@ -64,6 +77,18 @@ public class ThreadPoolConfiguration {
         if (threadType == null) {
             throw new IllegalArgumentException("Thread type cannot be null");
         }
+        if (executorEngine == null) {
+            throw new IllegalArgumentException("Executor engine cannot be null");
+        }
+        if (virtualThreadMode == null) {
+            throw new IllegalArgumentException("Virtual thread mode cannot be null");
+        }
+        if (overloadPolicy == null) {
+            throw new IllegalArgumentException("Overload policy cannot be null");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must be >= 0");
+        }
     }
 
     // Getters and setters
@@ -113,6 +138,42 @@ public class ThreadPoolConfiguration {
         validate();
     }
 
+    public ExecutorEngine getExecutorEngine() {
+        return executorEngine;
+    }
+
+    public void setExecutorEngine(ExecutorEngine executorEngine) {
+        this.executorEngine = executorEngine;
+        validate();
+    }
+
+    public VirtualThreadMode getVirtualThreadMode() {
+        return virtualThreadMode;
+    }
+
+    public void setVirtualThreadMode(VirtualThreadMode virtualThreadMode) {
+        this.virtualThreadMode = virtualThreadMode;
+        validate();
+    }
+
+    public OverloadPolicy getOverloadPolicy() {
+        return overloadPolicy;
+    }
+
+    public void setOverloadPolicy(OverloadPolicy overloadPolicy) {
+        this.overloadPolicy = overloadPolicy;
+        validate();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        validate();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -122,12 +183,17 @@ public class ThreadPoolConfiguration {
                 maximumPoolSize == that.maximumPoolSize &&
                 keepAliveTime == that.keepAliveTime &&
                 Objects.equals(timeUnit, that.timeUnit) &&
-                threadType == that.threadType;
+                threadType == that.threadType &&
+                executorEngine == that.executorEngine &&
+                virtualThreadMode == that.virtualThreadMode &&
+                overloadPolicy == that.overloadPolicy &&
+                queueCapacity == that.queueCapacity;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(corePoolSize, maximumPoolSize, keepAliveTime, timeUnit, threadType);
+        return Objects.hash(corePoolSize, maximumPoolSize, keepAliveTime, timeUnit, threadType, executorEngine,
+                virtualThreadMode, overloadPolicy, queueCapacity);
     }
 
     @Override
@@ -138,6 +204,10 @@ public class ThreadPoolConfiguration {
                 ", keepAliveTime=" + keepAliveTime +
                 ", timeUnit=" + timeUnit +
                 ", threadType=" + threadType +
+                ", executorEngine=" + executorEngine +
+                ", virtualThreadMode=" + virtualThreadMode +
+                ", overloadPolicy=" + overloadPolicy +
+                ", queueCapacity=" + queueCapacity +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of concurrency modes for virtual thread executors.
+ */
+public enum VirtualThreadMode {
+    /**
+     * One virtual thread per task with no limit on concurrency.
+     */
+    UNBOUNDED,
+
+    /**
+     * In-flight tasks are capped at the maximum pool size; excess tasks wait in FIFO order.
+     */
+    BOUNDED,
+
+    /**
+     * In-flight tasks are capped by a limit that adapts to observed task latency. The limit starts
+     * at the core pool size, never exceeds the maximum pool size and may back off as far as one.
+     */
+    ADAPTIVE
+}
@@ -0,0 +1,21 @@
+package com.example.threadcontroller.model;
+
+/**
+ * Enumeration of the ways a thread waits on a lock-free queue that is full or empty.
+ */
+public enum WaitStrategy {
+    /**
+     * Spin on the CPU; lowest latency, but occupies a core while waiting.
+     */
+    BUSY_SPIN,
+
+    /**
+     * Spin briefly, then yield the CPU to other runnable threads between retries.
+     */
+    YIELDING,
+
+    /**
+     * Spin and yield briefly, then park for increasing intervals; lowest CPU use while idle.
+     */
+    PARKING
+}
@@ -0,0 +1,413 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base class for task queues that order tasks with a non-blocking inner structure.
+ *
+ * <p>Subclasses only implement non-blocking {@link #enqueue(Task)} and {@link #dequeue()}. This class
+ * adds the capacity bound and the blocking operations. Producers and consumers only take a lock when
+ * they have to wait, or when they must wake a thread that is waiting; the fast path is lock-free as
+ * long as the subclass's structure is.</p>
+ */
+public abstract class AbstractTaskQueue extends AbstractQueue<Task> implements BatchTaskQueue {
+    private final int capacity;
+    private final AtomicInteger count;
+    private final AtomicInteger waitingTakers;
+    private final AtomicInteger waitingPutters;
+    private final ReentrantLock takeLock;
+    private final Condition notEmpty;
+    private final ReentrantLock putLock;
+    private final Condition notFull;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     */
+    protected AbstractTaskQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.count = new AtomicInteger(0);
+        this.waitingTakers = new AtomicInteger(0);
+        this.waitingPutters = new AtomicInteger(0);
+        this.takeLock = new ReentrantLock();
+        this.notEmpty = takeLock.newCondition();
+        this.putLock = new ReentrantLock();
+        this.notFull = putLock.newCondition();
+    }
+
+    /**
+     * Inserts a task. Capacity has already been reserved, so this must not fail.
+     *
+     * @param task the task to insert
+     */
+    protected abstract void enqueue(Task task);
+
+    /**
+     * Removes the next task according to the queue's ordering.
+     *
+     * @return the next task, or null if none is visible
+     */
+    protected abstract Task dequeue();
+
+    /**
+     * Inserts several tasks. Capacity has already been reserved for all of them, so this must not fail.
+     * Subclasses that guard their structure with a lock should override this to take it once.
+     *
+     * @param tasks the tasks to insert
+     */
+    protected void enqueueAll(List<Task> tasks) {
+        for (Task task : tasks) {
+            enqueue(task);
+        }
+    }
+
+    /**
+     * Removes up to the given number of tasks in queue order. Subclasses that guard their structure
+     * with a lock should override this to take it once.
+     *
+     * @param collection the collection to add the removed tasks to
+     * @param maxElements the maximum number of tasks to remove
+     * @return the number of tasks removed
+     */
+    protected int dequeueAll(Collection<? super Task> collection, int maxElements) {
+        int removed = 0;
+        Task task;
+        while (removed < maxElements && (task = dequeue()) != null) {
+            collection.add(task);
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the next task without removing it.
+     *
+     * @return the next task, or null if none is visible
+     */
+    protected abstract Task peekTask();
+
+    /**
+     * Removes one task equal to the given object, wherever it is in the queue order.
+     *
+     * @param task the task to remove
+     * @return true if a task was removed
+     */
+    protected abstract boolean removeTask(Object task);
+
+    /**
+     * Copies the queued tasks into a new list. The copy need not be in queue order.
+     *
+     * @return the snapshot
+     */
+    protected abstract List<Task> snapshot();
+
+    @Override
+    public boolean offer(Task task) {
+        boolean added = tryEnqueue(task);
+        if (added) {
+            signalNotEmpty();
+        }
+        return added;
+    }
+
+    @Override
+    public int offerBatch(List<Task> tasks) {
+        for (Task task : tasks) {
+            if (task == null) {
+                throw new NullPointerException("Task cannot be null");
+            }
+        }
+        int reserved;
+        while (true) {
+            int current = count.get();
+            reserved = Math.min(tasks.size(), capacity - current);
+            if (reserved <= 0) {
+                return 0;
+            }
+            if (count.compareAndSet(current, current + reserved)) {
+                break;
+            }
+        }
+        enqueueAll(reserved == tasks.size() ? tasks : tasks.subList(0, reserved));
+        signalNotEmpty(reserved);
+        return reserved;
+    }
+
+    @Override
+    public Task poll() {
+        Task task = tryDequeue();
+        if (task != null) {
+            signalNotFull();
+        }
+        return task;
+    }
+
+    @Override
+    public Task peek() {
+        return peekTask();
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        if (task == null || !removeTask(task)) {
+            return false;
+        }
+        count.decrementAndGet();
+        signalNotFull();
+        return true;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the queued tasks. Its {@code remove()} removes the last
+     * returned task from the queue itself, so the inherited bulk removal methods work.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        Iterator<Task> snapshot = snapshot().iterator();
+        return new Iterator<Task>() {
+            private Task last;
+
+            @Override
+            public boolean hasNext() {
+                return snapshot.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                last = snapshot.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                AbstractTaskQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    @Override
+    public void put(Task task) throws InterruptedException {
+        if (offer(task)) {
+            return;
+        }
+        putLock.lockInterruptibly();
+        try {
+            waitingPutters.incrementAndGet();
+            try {
+                while (!tryEnqueue(task)) {
+                    notFull.await();
+                }
+            } finally {
+                waitingPutters.decrementAndGet();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        signalNotEmpty();
+    }
+
+    @Override
+    public boolean offer(Task task, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(task)) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        putLock.lockInterruptibly();
+        try {
+            waitingPutters.incrementAndGet();
+            try {
+                while (!tryEnqueue(task)) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+            } finally {
+                waitingPutters.decrementAndGet();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    public Task take() throws InterruptedException {
+        Task task = poll();
+        if (task != null) {
+            return task;
+        }
+        takeLock.lockInterruptibly();
+        try {
+            waitingTakers.incrementAndGet();
+            try {
+                while ((task = tryDequeue()) == null) {
+                    notEmpty.await();
+                }
+            } finally {
+                waitingTakers.decrementAndGet();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        signalNotFull();
+        return task;
+    }
+
+    @Override
+    public Task poll(long timeout, TimeUnit unit) throws InterruptedException {
+        Task task = poll();
+        if (task != null) {
+            return task;
+        }
+        long nanos = unit.toNanos(timeout);
+        takeLock.lockInterruptibly();
+        try {
+            waitingTakers.incrementAndGet();
+            try {
+                while ((task = tryDequeue()) == null) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            } finally {
+                waitingTakers.decrementAndGet();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        signalNotFull();
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    @Override
+    public int drainTo(Collection<? super Task> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Task> collection, int maxElements) {
+        if (collection == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+        int drained = dequeueAll(collection, maxElements);
+        if (drained > 0) {
+            count.addAndGet(-drained);
+            signalNotFull(drained);
+        }
+        return drained;
+    }
+
+    /**
+     * Reserves capacity and inserts the task without waking anyone.
+     */
+    private boolean tryEnqueue(Task task) {
+        if (task == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+        while (true) {
+            int current = count.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (count.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        enqueue(task);
+        return true;
+    }
+
+    /**
+     * Removes a task and releases its capacity without waking anyone.
+     */
+    private Task tryDequeue() {
+        Task task = dequeue();
+        if (task != null) {
+            count.decrementAndGet();
+        }
+        return task;
+    }
+
+    // A waiter registers itself before re-checking the queue, and a producer publishes before checking
+    // for waiters, so at least one side always sees the other.
+    private void signalNotEmpty() {
+        if (waitingTakers.get() > 0) {
+            takeLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                takeLock.unlock();
+            }
+        }
+    }
+
+    private void signalNotFull() {
+        if (waitingPutters.get() > 0) {
+            putLock.lock();
+            try {
+                notFull.signal();
+            } finally {
+                putLock.unlock();
+            }
+        }
+    }
+
+    private void signalNotEmpty(int added) {
+        if (added == 1) {
+            signalNotEmpty();
+        } else if (waitingTakers.get() > 0) {
+            takeLock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                takeLock.unlock();
+            }
+        }
+    }
+
+    private void signalNotFull(int removed) {
+        if (removed == 1) {
+            signalNotFull();
+        } else if (waitingPutters.get() > 0) {
+            putLock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                putLock.unlock();
+            }
+        }
+    }
+}
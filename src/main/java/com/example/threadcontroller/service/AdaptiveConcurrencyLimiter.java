@@ -0,0 +1,227 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Concurrency limiter that adapts the allowed in-flight count to observed task latency.
+ *
+ * <p>The limiter follows the gradient approach: it keeps a slowly moving long-term average of the
+ * round-trip time and compares it with the average of the most recent sample window. While recent
+ * latency stays close to the long-term baseline the limit grows by a queue allowance of
+ * {@code sqrt(limit)}; once recent latency rises above the baseline the gradient drops below one and
+ * the limit shrinks proportionally. Windows in which the limit was not actually used do not grow it.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger logger = new Logger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.05;
+
+    private volatile int minLimit;
+    private volatile int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final LongAdder windowRttSum;
+    private final LongAdder windowSamples;
+    private final AtomicInteger windowMaxInFlight;
+    private final AtomicBoolean updating;
+    private volatile long windowStartNanos;
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    private volatile double longRttNanos;
+    private IntConsumer limitListener;
+
+    /**
+     * Constructor with a 100 millisecond sample window of at least 10 samples.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit the lowest limit the algorithm may choose
+     * @param maxLimit the highest limit the algorithm may choose
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, 100, TimeUnit.MILLISECONDS, 10);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit the lowest limit the algorithm may choose
+     * @param maxLimit the highest limit the algorithm may choose
+     * @param window the minimum duration of a sample window
+     * @param unit the time unit of the window
+     * @param minWindowSamples the minimum number of samples in a window
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long window, TimeUnit unit, int minWindowSamples) {
+        if (minLimit <= 0) {
+            throw new IllegalArgumentException("Minimum limit must be positive");
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("Maximum limit must be >= minimum limit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Initial limit must be between minimum and maximum limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = unit.toNanos(window);
+        this.minWindowSamples = minWindowSamples;
+        this.windowRttSum = new LongAdder();
+        this.windowSamples = new LongAdder();
+        this.windowMaxInFlight = new AtomicInteger(0);
+        this.updating = new AtomicBoolean(false);
+        this.windowStartNanos = System.nanoTime();
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        logger.info("Created AdaptiveConcurrencyLimiter with limit={}, min={}, max={}",
+                   initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Registers a listener that is called with the new limit whenever it changes.
+     *
+     * @param listener the limit listener
+     */
+    public void setLimitListener(IntConsumer listener) {
+        this.limitListener = listener;
+    }
+
+    /**
+     * Records the round-trip time of a completed task.
+     *
+     * @param rttNanos the task round-trip time in nanoseconds
+     * @param inFlight the number of tasks in flight when the task started
+     */
+    public void onSample(long rttNanos, int inFlight) {
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        windowMaxInFlight.accumulateAndGet(inFlight, Math::max);
+
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= windowNanos && windowSamples.sum() >= minWindowSamples
+                && updating.compareAndSet(false, true)) {
+            try {
+                closeWindow(now);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Computes a new limit from the samples of the window that just ended.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void closeWindow(long now) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        windowStartNanos = now;
+        if (samples == 0) {
+            return;
+        }
+
+        double shortRtt = Math.max(1.0, (double) rttSum / samples);
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos = longRttNanos * (1 - LONG_RTT_WEIGHT) + shortRtt * LONG_RTT_WEIGHT;
+        }
+        // Let the baseline recover quickly after a sustained latency drop
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        int currentLimit = limit;
+        // Windows that did not use half the limit say nothing about whether more concurrency helps
+        if (maxInFlight < currentLimit / 2 && shortRtt <= longRttNanos * RTT_TOLERANCE) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+            estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+
+        int newLimit = (int) estimatedLimit;
+        if (newLimit != currentLimit) {
+            limit = newLimit;
+            logger.debug("Adjusted concurrency limit from {} to {} (shortRtt={}us, longRtt={}us)",
+                         currentLimit, newLimit, (long) (shortRtt / 1000), (long) (longRttNanos / 1000));
+            IntConsumer listener = limitListener;
+            if (listener != null) {
+                listener.accept(newLimit);
+            }
+        }
+    }
+
+    /**
+     * Changes the highest limit the algorithm may choose. The current limit is lowered at once if it
+     * is above the new bound, and the minimum follows the bound down if necessary.
+     *
+     * @param newMaxLimit the new maximum limit
+     */
+    public void setMaxLimit(int newMaxLimit) {
+        if (newMaxLimit <= 0) {
+            throw new IllegalArgumentException("Maximum limit must be positive");
+        }
+        // Exclude a concurrent window update so it cannot write back a limit above the new bound
+        while (!updating.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+        int newLimit;
+        int oldLimit;
+        try {
+            maxLimit = newMaxLimit;
+            minLimit = Math.min(minLimit, newMaxLimit);
+            estimatedLimit = Math.min(estimatedLimit, newMaxLimit);
+            oldLimit = limit;
+            newLimit = Math.min(oldLimit, newMaxLimit);
+            limit = newLimit;
+        } finally {
+            updating.set(false);
+        }
+        logger.info("Changed maximum concurrency limit to {}", newMaxLimit);
+        IntConsumer listener = limitListener;
+        if (newLimit != oldLimit && listener != null) {
+            listener.accept(newLimit);
+        }
+    }
+
+    /**
+     * Gets the highest limit the algorithm may choose.
+     *
+     * @return the maximum limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return the current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the long-term round-trip time baseline.
+     *
+     * @return the baseline in nanoseconds, or 0 before the first window closes
+     */
+    public long getLongRttNanos() {
+        return (long) longRttNanos;
+    }
+}
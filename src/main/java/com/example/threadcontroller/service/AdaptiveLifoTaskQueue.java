@@ -0,0 +1,150 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Task queue that serves FIFO normally and switches to LIFO under overload.
+ *
+ * <p>Once the queue is deep or its oldest task has waited too long, the oldest callers have most
+ * likely given up already, so serving them first only makes every request late. In LIFO mode the
+ * newest tasks are served first and still meet their callers' timeouts, while the backlog waits;
+ * tasks with a deadline that expire there are shed when they are finally dequeued. The queue
+ * returns to FIFO once it has stayed calm, either drained or with a short, young backlog, for as
+ * long as the wait threshold, so a slow consumer at a shallow depth does not flip the mode on every
+ * dequeue.</p>
+ *
+ * <p>The mode is re-evaluated on every dequeue from the depth and the age of the oldest task, both
+ * of which are O(1) to read. Every switch is recorded in the metrics collector together with the
+ * time spent in the previous mode.</p>
+ */
+public class AdaptiveLifoTaskQueue extends AbstractTaskQueue {
+    private static final Logger logger = new Logger(AdaptiveLifoTaskQueue.class);
+
+    private final ConcurrentLinkedDeque<Task> deque;
+    private final int depthThreshold;
+    private final long waitThresholdMillis;
+    private final MetricsCollector metricsCollector;
+    private final AtomicBoolean lifo;
+    private volatile long modeSinceNanos;
+    private volatile boolean calm;
+    private volatile long calmSinceNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     * @param depthThreshold the queue depth at which dequeue switches to LIFO
+     * @param waitThreshold the wait of the oldest task at which dequeue switches to LIFO
+     * @param unit the time unit of the wait threshold
+     * @param metricsCollector the metrics collector that records mode switches
+     */
+    public AdaptiveLifoTaskQueue(int capacity, int depthThreshold, long waitThreshold, TimeUnit unit,
+                                 MetricsCollector metricsCollector) {
+        super(capacity);
+        if (depthThreshold <= 0) {
+            throw new IllegalArgumentException("Depth threshold must be positive");
+        }
+        if (waitThreshold <= 0) {
+            throw new IllegalArgumentException("Wait threshold must be positive");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        this.deque = new ConcurrentLinkedDeque<>();
+        this.depthThreshold = depthThreshold;
+        this.waitThresholdMillis = unit.toMillis(waitThreshold);
+        this.metricsCollector = metricsCollector;
+        this.lifo = new AtomicBoolean(false);
+        this.modeSinceNanos = System.nanoTime();
+        logger.info("Created AdaptiveLifoTaskQueue with capacity: {}, depth threshold: {}, wait threshold: {}ms",
+                   capacity, depthThreshold, waitThresholdMillis);
+    }
+
+    @Override
+    protected void enqueue(Task task) {
+        deque.offerLast(task);
+    }
+
+    @Override
+    protected Task dequeue() {
+        updateMode();
+        return lifo.get() ? deque.pollLast() : deque.pollFirst();
+    }
+
+    @Override
+    protected Task peekTask() {
+        return lifo.get() ? deque.peekLast() : deque.peekFirst();
+    }
+
+    /**
+     * Switches to LIFO when the queue is overloaded, and back to FIFO when it has been calm for the
+     * wait threshold.
+     */
+    private void updateMode() {
+        // The count still includes the task about to be removed
+        int depth = size();
+        if (!lifo.get()) {
+            if (depth >= depthThreshold || oldestWaitMillis() >= waitThresholdMillis) {
+                switchMode(true, depth);
+            }
+            return;
+        }
+        if (depth > 1 && (depth >= depthThreshold || oldestWaitMillis() >= waitThresholdMillis)) {
+            calm = false;
+            return;
+        }
+        long now = System.nanoTime();
+        if (!calm) {
+            calmSinceNanos = now;
+            calm = true;
+        } else if (TimeUnit.NANOSECONDS.toMillis(now - calmSinceNanos) >= waitThresholdMillis) {
+            switchMode(false, depth);
+        }
+    }
+
+    private long oldestWaitMillis() {
+        Task oldest = deque.peekFirst();
+        return oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.getSubmissionTimeNanos());
+    }
+
+    private void switchMode(boolean toLifo, int depth) {
+        // Only one consumer records a given switch
+        if (!lifo.compareAndSet(!toLifo, toLifo)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long previousModeMillis = TimeUnit.NANOSECONDS.toMillis(now - modeSinceNanos);
+        modeSinceNanos = now;
+        calm = false;
+        metricsCollector.recordQueueModeSwitch(toLifo, previousModeMillis);
+        logger.debug("Switched to {} dequeue at depth {} after {}ms in {} mode",
+                   toLifo ? "LIFO" : "FIFO", depth, previousModeMillis, toLifo ? "FIFO" : "LIFO");
+    }
+
+    /**
+     * Checks whether the queue is currently serving the newest task first.
+     *
+     * @return true in LIFO mode
+     */
+    public boolean isLifo() {
+        return lifo.get();
+    }
+
+    @Override
+    protected boolean removeTask(Object task) {
+        return deque.remove(task);
+    }
+
+    @Override
+    protected List<Task> snapshot() {
+        return new ArrayList<>(deque);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.threadcontroller.service;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded destination for work, as seen by a {@link RejectionPolicy}.
+ * <p>
+ * Each component that applies rejection policies adapts its own queue or in-flight limit to this
+ * interface, so the same policies work for the task queue, the submission service and the fixed
+ * thread pool.
+ *
+ * @param <T> the type of item being admitted
+ */
+public interface AdmissionTarget<T> {
+
+    /**
+     * Admits an item if there is capacity right now.
+     *
+     * @param item the item to admit
+     * @return true if the item was admitted, false if the target is full
+     */
+    boolean tryAdmit(T item);
+
+    /**
+     * Admits an item, waiting up to the timeout for capacity.
+     *
+     * @param item the item to admit
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout
+     * @return true if the item was admitted, false if the timeout expired first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean tryAdmit(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Discards the oldest admitted item that has not started yet, failing it.
+     *
+     * @return true if an item was discarded, false if there was nothing to discard
+     */
+    boolean dropOldest();
+
+    /**
+     * Returns a stage that completes the next time capacity may have been freed. Completion is a
+     * hint only; callers must still call {@link #tryAdmit(Object)} and may have to wait again.
+     *
+     * @return a stage that completes when capacity may be available
+     */
+    CompletionStage<Void> awaitCapacity();
+}
@@ -0,0 +1,23 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Task queue that can publish several tasks with a single synchronization step.
+ *
+ * <p>{@link BlockingQueue#drainTo(java.util.Collection, int)} is the batch counterpart for consumers;
+ * implementations of this interface remove a drained batch in one step as well.</p>
+ */
+public interface BatchTaskQueue extends BlockingQueue<Task> {
+
+    /**
+     * Inserts as many tasks from the list as fit, in list order, without waiting.
+     *
+     * @param tasks the tasks to insert
+     * @return the number of tasks inserted, counted from the start of the list
+     */
+    int offerBatch(List<Task> tasks);
+}
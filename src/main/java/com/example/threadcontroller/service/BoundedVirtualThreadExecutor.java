@@ -0,0 +1,336 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.OverloadPolicy;
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Virtual thread executor that caps the number of in-flight tasks.
+ *
+ * <p>A task submitted while a slot is free gets a new virtual thread of its own; tasks beyond the
+ * concurrency limit wait in a FIFO list. A virtual thread keeps taking tasks from the wait list until
+ * it is empty or the limit has been lowered below the current in-flight count, in which case it
+ * retires at the next task boundary. Threads are only started for tasks that exist, so a burst never
+ * starts more threads than it has tasks, and no more than the limit at once.</p>
+ *
+ * <p>When created with an {@link AdaptiveConcurrencyLimiter}, the round-trip time of every task is
+ * reported to the limiter and the concurrency limit follows the limiter's decisions. Under the
+ * {@link OverloadPolicy#REJECT} policy, tasks arriving while the limit is reached are rejected
+ * instead of waiting.</p>
+ */
+public final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+    private static final Logger logger = new Logger(BoundedVirtualThreadExecutor.class);
+
+    private final ThreadFactory threadFactory;
+    private final Queue<Runnable> waitingTasks;
+    private final AtomicInteger waitingCount;
+    private final AtomicInteger inFlightCount;
+    private final Set<Thread> workers;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final OverloadPolicy overloadPolicy;
+    private final Object terminationLock = new Object();
+    private volatile int concurrencyLimit;
+    private volatile boolean isShutdown;
+
+    /**
+     * Constructor.
+     *
+     * @param namePrefix the prefix for virtual thread names
+     * @param concurrencyLimit the maximum number of tasks allowed to run at once
+     */
+    public BoundedVirtualThreadExecutor(String namePrefix, int concurrencyLimit) {
+        this(namePrefix, concurrencyLimit, null, OverloadPolicy.QUEUE);
+    }
+
+    /**
+     * Constructor with an adaptive limiter.
+     *
+     * @param namePrefix the prefix for virtual thread names
+     * @param limiter the limiter that decides the concurrency limit from task latency
+     * @param overloadPolicy what to do with tasks that arrive while the limit is reached
+     */
+    public BoundedVirtualThreadExecutor(String namePrefix, AdaptiveConcurrencyLimiter limiter,
+                                        OverloadPolicy overloadPolicy) {
+        this(namePrefix, limiter.getLimit(), limiter, overloadPolicy);
+        limiter.setLimitListener(this::applyConcurrencyLimit);
+    }
+
+    private BoundedVirtualThreadExecutor(String namePrefix, int concurrencyLimit,
+                                         AdaptiveConcurrencyLimiter limiter, OverloadPolicy overloadPolicy) {
+        if (concurrencyLimit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.threadFactory = Thread.ofVirtual().name(namePrefix, 0).factory();
+        this.waitingTasks = new ConcurrentLinkedQueue<>();
+        this.waitingCount = new AtomicInteger(0);
+        this.inFlightCount = new AtomicInteger(0);
+        this.workers = ConcurrentHashMap.newKeySet();
+        this.limiter = limiter;
+        this.overloadPolicy = overloadPolicy;
+        this.concurrencyLimit = concurrencyLimit;
+        this.isShutdown = false;
+        logger.info("Created BoundedVirtualThreadExecutor with concurrency limit: {}, adaptive: {}, policy: {}",
+                   concurrencyLimit, limiter != null, overloadPolicy);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+        if (isShutdown) {
+            throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+        }
+
+        if (overloadPolicy == OverloadPolicy.REJECT) {
+            startWorkerOrReject(command);
+            return;
+        }
+
+        // Hand the task straight to a new worker unless others are already waiting ahead of it
+        if (waitingCount.get() == 0 && tryReserveSlot()) {
+            startWorker(command);
+            return;
+        }
+        waitingTasks.offer(command);
+        waitingCount.incrementAndGet();
+        // Every worker may have finished between the check above and the offer
+        startWorkers(1);
+    }
+
+    /**
+     * Starts a worker for the task if a slot is free, without using the wait list.
+     *
+     * @param command the task to run
+     */
+    private void startWorkerOrReject(Runnable command) {
+        if (!tryReserveSlot()) {
+            throw new RejectedExecutionException(
+                String.format("Concurrency limit of %d reached", concurrencyLimit));
+        }
+        startWorker(command);
+    }
+
+    /**
+     * Reserves an in-flight slot if the concurrency limit allows it.
+     *
+     * @return true if a slot was reserved
+     */
+    private boolean tryReserveSlot() {
+        while (true) {
+            int current = inFlightCount.get();
+            if (current >= concurrencyLimit) {
+                return false;
+            }
+            if (inFlightCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Starts up to the given number of workers for the wait list, stopping early once it is empty or
+     * the concurrency limit is reached.
+     *
+     * @param maxWorkers the most workers to start
+     */
+    private void startWorkers(int maxWorkers) {
+        for (int started = 0; started < maxWorkers && !waitingTasks.isEmpty(); started++) {
+            if (!tryReserveSlot()) {
+                return;
+            }
+            startWorker(null);
+        }
+    }
+
+    /**
+     * Starts a worker thread for a slot that has already been reserved.
+     *
+     * @param firstTask the task to run first, or null to start with the wait list
+     */
+    private void startWorker(Runnable firstTask) {
+        Thread worker = threadFactory.newThread(() -> runWorker(firstTask));
+        workers.add(worker);
+        worker.start();
+    }
+
+    /**
+     * Worker loop: runs waiting tasks until none remain or the limit has shrunk.
+     *
+     * @param firstTask the task to run first, or null to start with the wait list
+     */
+    private void runWorker(Runnable firstTask) {
+        boolean retired = false;
+        try {
+            if (firstTask != null) {
+                runTask(firstTask);
+            }
+            while (true) {
+                int current = inFlightCount.get();
+                if (current > concurrencyLimit) {
+                    if (inFlightCount.compareAndSet(current, current - 1)) {
+                        retired = true;
+                        break;
+                    }
+                    continue;
+                }
+
+                Runnable task = waitingTasks.poll();
+                if (task == null) {
+                    break;
+                }
+                waitingCount.decrementAndGet();
+                runTask(task);
+            }
+        } finally {
+            workers.remove(Thread.currentThread());
+            if (!retired) {
+                inFlightCount.decrementAndGet();
+            }
+            // A task may have been queued after our last poll while the limit looked full
+            startWorkers(1);
+            if (isShutdown) {
+                signalTermination();
+            }
+        }
+    }
+
+    /**
+     * Runs a task, reporting its round-trip time to the adaptive limiter if there is one.
+     *
+     * @param task the task to run
+     */
+    private void runTask(Runnable task) {
+        int inFlight = inFlightCount.get();
+        long startNanos = limiter != null ? System.nanoTime() : 0L;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Task failed in bounded virtual thread: {}", e.getMessage(), e);
+        } finally {
+            if (limiter != null) {
+                limiter.onSample(System.nanoTime() - startNanos, inFlight);
+            }
+        }
+    }
+
+    /**
+     * Changes the concurrency limit. Raising the limit starts workers for waiting tasks immediately;
+     * lowering it lets busy workers finish their current task before retiring. With an adaptive
+     * limiter the new value becomes the limiter's maximum, since the limiter sets the limit itself.
+     *
+     * @param newLimit the new concurrency limit
+     */
+    public void setConcurrencyLimit(int newLimit) {
+        if (newLimit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        if (limiter != null) {
+            limiter.setMaxLimit(newLimit);
+            return;
+        }
+        int oldLimit = concurrencyLimit;
+        applyConcurrencyLimit(newLimit);
+        logger.info("Changed concurrency limit from {} to {}", oldLimit, newLimit);
+    }
+
+    private void applyConcurrencyLimit(int newLimit) {
+        concurrencyLimit = newLimit;
+        startWorkers(waitingCount.get());
+    }
+
+    /**
+     * Gets the concurrency limit.
+     *
+     * @return the concurrency limit
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Gets the number of workers currently running or about to run a task.
+     *
+     * @return the in-flight count
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    /**
+     * Gets the number of tasks waiting for a free slot.
+     *
+     * @return the waiting count
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        signalTermination();
+        logger.info("BoundedVirtualThreadExecutor shutdown initiated");
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> pending = new ArrayList<>();
+        Runnable task;
+        while ((task = waitingTasks.poll()) != null) {
+            waitingCount.decrementAndGet();
+            pending.add(task);
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        signalTermination();
+        logger.info("BoundedVirtualThreadExecutor shutdownNow returned {} pending tasks", pending.size());
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown && inFlightCount.get() == 0 && waitingTasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    private void signalTermination() {
+        if (isTerminated()) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.threadcontroller.service;
+
+/**
+ * An {@link AdmissionTarget} whose items can run on their own, and can therefore be run on the
+ * submitting thread by the caller-runs policy.
+ * <p>
+ * Targets that hold descriptors rather than runnable work do not implement this interface, and
+ * {@link RejectionPolicies#callerRuns()} rejects items for them.
+ *
+ * @param <T> the type of item being admitted
+ */
+public interface CallerRunsAdmissionTarget<T> extends AdmissionTarget<T> {
+
+    /**
+     * Runs an item on the calling thread instead of admitting it.
+     *
+     * @param item the item to run
+     */
+    void runInCaller(T item);
+}
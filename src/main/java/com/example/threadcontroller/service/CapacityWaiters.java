@@ -0,0 +1,49 @@
+package com.example.threadcontroller.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stages waiting for capacity in a bounded queue or in-flight limit.
+ * <p>
+ * Waiters register before re-checking for capacity and are all released whenever capacity may
+ * have been freed, so a release between the check and the registration is never missed.
+ */
+public class CapacityWaiters {
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Registers a waiter.
+     *
+     * @return a stage that completes on the next {@link #signalAll()}
+     */
+    public CompletionStage<Void> register() {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Releases every registered waiter.
+     */
+    public void signalAll() {
+        // Cheap check first so the dequeue path pays nothing when nobody waits
+        if (waiters.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.complete(null);
+        }
+    }
+
+    /**
+     * Gets the number of registered waiters.
+     *
+     * @return the waiter count
+     */
+    public int getWaiterCount() {
+        return waiters.size();
+    }
+}
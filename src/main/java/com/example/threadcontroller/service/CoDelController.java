@@ -0,0 +1,152 @@
+package com.example.threadcontroller.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controlled Delay (CoDel) active queue management.
+ *
+ * <p>CoDel looks at how long each task waited in the queue (its sojourn time) when it is dequeued. A
+ * burst that drains within one interval is left alone. Once the sojourn time has stayed above the target
+ * for a full interval, a standing queue has formed and the controller starts dropping tasks at the dequeue
+ * side, at a rate that grows with the square root of the number of drops until the sojourn time falls
+ * below the target again.</p>
+ *
+ * <p>The state machine follows RFC 8289. Decisions are made under the controller's monitor, which is only
+ * entered by consumers.</p>
+ */
+public class CoDelController {
+
+    /**
+     * Default sojourn time a queue may sustain without dropping.
+     */
+    public static final long DEFAULT_TARGET_MILLIS = 5;
+
+    /**
+     * Default interval the sojourn time must stay above target before dropping starts.
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+    private final long targetNanos;
+    private final long intervalNanos;
+    private long firstAboveTime;
+    private long dropNext;
+    private int count;
+    private int lastCount;
+    private boolean dropping;
+    private long drops;
+
+    /**
+     * Constructor with the default target and interval.
+     */
+    public CoDelController() {
+        this(DEFAULT_TARGET_MILLIS, DEFAULT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param target the sojourn time a queue may sustain without dropping
+     * @param interval the time the sojourn time must stay above target before dropping starts
+     * @param unit the time unit of target and interval
+     */
+    public CoDelController(long target, long interval, TimeUnit unit) {
+        if (target <= 0) {
+            throw new IllegalArgumentException("Target must be positive");
+        }
+        if (interval < target) {
+            throw new IllegalArgumentException("Interval must be >= target");
+        }
+        this.targetNanos = unit.toNanos(target);
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Decides whether a task that has just been dequeued should be dropped.
+     *
+     * @param sojournNanos how long the task waited in the queue
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param queueEmpty whether the queue was empty after the task was removed
+     * @return true if the task should be dropped instead of run
+     */
+    public synchronized boolean shouldDrop(long sojournNanos, long nowNanos, boolean queueEmpty) {
+        boolean okToDrop = isAboveTargetForInterval(sojournNanos, nowNanos, queueEmpty);
+        if (dropping) {
+            if (!okToDrop) {
+                dropping = false;
+                return false;
+            }
+            if (nowNanos - dropNext >= 0) {
+                count++;
+                dropNext = controlLaw(dropNext);
+                drops++;
+                return true;
+            }
+            return false;
+        }
+        if (okToDrop) {
+            dropping = true;
+            // Resume near the previous drop rate if we were dropping recently
+            int delta = count - lastCount;
+            count = (delta > 1 && nowNanos - dropNext < 16 * intervalNanos) ? delta : 1;
+            dropNext = controlLaw(nowNanos);
+            lastCount = count;
+            drops++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isAboveTargetForInterval(long sojournNanos, long nowNanos, boolean queueEmpty) {
+        if (sojournNanos < targetNanos || queueEmpty) {
+            firstAboveTime = 0;
+            return false;
+        }
+        if (firstAboveTime == 0) {
+            firstAboveTime = nowNanos + intervalNanos;
+            return false;
+        }
+        return nowNanos - firstAboveTime >= 0;
+    }
+
+    private long controlLaw(long time) {
+        return time + (long) (intervalNanos / Math.sqrt(count));
+    }
+
+    /**
+     * Checks whether the controller is currently dropping tasks.
+     *
+     * @return true while in the dropping state
+     */
+    public synchronized boolean isDropping() {
+        return dropping;
+    }
+
+    /**
+     * Gets the number of tasks the controller has decided to drop.
+     *
+     * @return the drop count
+     */
+    public synchronized long getDropCount() {
+        return drops;
+    }
+
+    /**
+     * Gets the target sojourn time.
+     *
+     * @param unit the time unit of the result
+     * @return the target
+     */
+    public long getTarget(TimeUnit unit) {
+        return unit.convert(targetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the interval the sojourn time must stay above target before dropping starts.
+     *
+     * @param unit the time unit of the result
+     * @return the interval
+     */
+    public long getInterval(TimeUnit unit) {
+        return unit.convert(intervalNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.util.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Task queue that hands out the task with the earliest deadline first.
+ *
+ * <p>Tasks without a deadline are ordered after every task that has one. Tasks with equal deadlines
+ * keep their submission order.</p>
+ */
+public class DeadlineTaskQueue extends AbstractTaskQueue {
+    private static final Logger logger = new Logger(DeadlineTaskQueue.class);
+
+    private static final Comparator<Entry> EDF_ORDER = Comparator
+        .comparing((Entry entry) -> entry.task.getDeadline(), Comparator.nullsLast(Comparator.<Instant>naturalOrder()))
+        .thenComparingLong(entry -> entry.sequence);
+
+    private final PriorityQueue<Entry> heap;
+    private long nextSequence;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     */
+    public DeadlineTaskQueue(int capacity) {
+        super(capacity);
+        this.heap = new PriorityQueue<>(EDF_ORDER);
+        logger.info("Created DeadlineTaskQueue with capacity: {}", capacity);
+    }
+
+    @Override
+    protected synchronized void enqueue(Task task) {
+        heap.offer(new Entry(task, nextSequence++));
+    }
+
+    @Override
+    protected synchronized void enqueueAll(List<Task> tasks) {
+        for (Task task : tasks) {
+            heap.offer(new Entry(task, nextSequence++));
+        }
+    }
+
+    @Override
+    protected synchronized int dequeueAll(Collection<? super Task> collection, int maxElements) {
+        int removed = 0;
+        Entry entry;
+        while (removed < maxElements && (entry = heap.poll()) != null) {
+            collection.add(entry.task);
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    protected synchronized Task dequeue() {
+        Entry entry = heap.poll();
+        return entry == null ? null : entry.task;
+    }
+
+    @Override
+    protected synchronized Task peekTask() {
+        Entry entry = heap.peek();
+        return entry == null ? null : entry.task;
+    }
+
+    @Override
+    protected synchronized boolean removeTask(Object task) {
+        for (Iterator<Entry> it = heap.iterator(); it.hasNext(); ) {
+            if (it.next().task.equals(task)) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected synchronized List<Task> snapshot() {
+        List<Task> snapshot = new ArrayList<>(heap.size());
+        for (Entry entry : heap) {
+            snapshot.add(entry.task);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Heap entry that remembers submission order for tie-breaking.
+     */
+    private static final class Entry {
+        private final Task task;
+        private final long sequence;
+
+        Entry(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+}
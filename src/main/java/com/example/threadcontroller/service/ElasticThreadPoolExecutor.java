@@ -0,0 +1,145 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool that grows to its maximum size before it starts queueing work.
+ *
+ * <p>A plain {@link ThreadPoolExecutor} with an unbounded queue never creates more than
+ * {@code corePoolSize} threads, because threads beyond core are only added when the queue refuses a
+ * task. This executor's queue hands a task directly to an idle worker if one is waiting, and refuses
+ * it while the pool is below its maximum size so that a new thread is started instead. Threads above
+ * core are reaped after the keep-alive time.</p>
+ */
+public final class ElasticThreadPoolExecutor extends ThreadPoolExecutor {
+    private static final Logger logger = new Logger(ElasticThreadPoolExecutor.class);
+
+    private final AtomicInteger liveThreads;
+
+    /**
+     * Constructor.
+     *
+     * @param corePoolSize the number of threads to keep even when idle
+     * @param maximumPoolSize the maximum number of threads
+     * @param keepAliveTime the time idle threads above core are kept before being reaped
+     * @param unit the time unit of the keep-alive time
+     * @param metricsCollector the metrics collector that records thread spawns and reaps
+     */
+    public ElasticThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                     MetricsCollector metricsCollector) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, metricsCollector,
+             new ElasticTaskQueue(), new AtomicInteger(0));
+    }
+
+    private ElasticThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                      MetricsCollector metricsCollector, ElasticTaskQueue queue,
+                                      AtomicInteger liveThreads) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, queue,
+              new CountingThreadFactory(liveThreads, metricsCollector), new ForceQueuePolicy());
+        this.liveThreads = liveThreads;
+        ((CountingThreadFactory) getThreadFactory()).executor = this;
+        queue.executor = this;
+        logger.info("Created ElasticThreadPoolExecutor with core={}, max={}, keepAlive={} {}",
+                   corePoolSize, maximumPoolSize, keepAliveTime, unit);
+    }
+
+    /**
+     * Gets the number of worker threads that have started and not yet exited, without taking the
+     * pool's main lock. The submit path uses this count to decide whether to grow. Use
+     * {@link #getPoolSize()} for an exact count that includes workers that are still starting.
+     *
+     * @return the number of live worker threads
+     */
+    public int getLiveThreadCount() {
+        return liveThreads.get();
+    }
+
+    /**
+     * Queue that refuses tasks while the pool can still grow.
+     */
+    private static class ElasticTaskQueue extends LinkedTransferQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+
+        private transient volatile ElasticThreadPoolExecutor executor;
+
+        @Override
+        public boolean offer(Runnable task) {
+            // An idle worker is blocked in poll/take: hand the task over directly
+            if (tryTransfer(task)) {
+                return true;
+            }
+            ElasticThreadPoolExecutor pool = executor;
+            // The live count never includes a thread that has not started yet, so while the pool
+            // grows it can only lag. Lagging makes the pool try to add a worker; at the maximum, the
+            // pool's lock-free worker count rejects the attempt and ForceQueuePolicy queues the
+            // task. A worker that is exiting stays counted for a moment, which at worst queues a
+            // task for the busy workers instead of growing. Neither case takes the main lock that
+            // getPoolSize would take.
+            if (pool != null && pool.liveThreads.get() < pool.getMaximumPoolSize()) {
+                return false;
+            }
+            return super.offer(task);
+        }
+
+        boolean force(Runnable task) {
+            return super.offer(task);
+        }
+    }
+
+    /**
+     * Queues a task that lost the race to start a new thread once the pool reached its maximum.
+     */
+    private static class ForceQueuePolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+            }
+            ((ElasticTaskQueue) executor.getQueue()).force(task);
+        }
+    }
+
+    /**
+     * Thread factory that tracks live threads and records spawns and reaps.
+     */
+    private static class CountingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+        private final AtomicInteger liveThreads;
+        private final MetricsCollector metricsCollector;
+        private volatile ThreadPoolExecutor executor;
+
+        CountingThreadFactory(AtomicInteger liveThreads, MetricsCollector metricsCollector) {
+            this.liveThreads = liveThreads;
+            this.metricsCollector = metricsCollector;
+        }
+
+        @Override
+        public Thread newThread(Runnable worker) {
+            Thread thread = new Thread(() -> {
+                // Count the thread once it runs: the pool may discard a created thread without starting it
+                liveThreads.incrementAndGet();
+                metricsCollector.recordThreadSpawned();
+                try {
+                    worker.run();
+                } finally {
+                    liveThreads.decrementAndGet();
+                    if (!executor.isShutdown()) {
+                        metricsCollector.recordThreadReaped();
+                    }
+                }
+            });
+            thread.setName("elastic-thread-" + counter.getAndIncrement());
+            thread.setDaemon(false);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.ExecutorEngine;
+import com.example.threadcontroller.model.ThreadPoolConfiguration;
+import com.example.threadcontroller.model.ThreadType;
+import com.example.threadcontroller.model.VirtualThreadMode;
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for creating executor services from a thread pool configuration.
+ */
+public class ExecutorFactory {
+    private static final Logger logger = new Logger(ExecutorFactory.class);
+
+    /**
+     * Creates an executor service matching the thread type and executor engine of the configuration.
+     *
+     * @param config the thread pool configuration
+     * @return the executor service
+     */
+    public static ExecutorService createExecutor(ThreadPoolConfiguration config) {
+        return createExecutor(config, new MetricsCollector());
+    }
+
+    /**
+     * Creates an executor service matching the thread type and executor engine of the configuration.
+     *
+     * @param config the thread pool configuration
+     * @param metricsCollector the metrics collector for engines that report pool activity
+     * @return the executor service
+     */
+    public static ExecutorService createExecutor(ThreadPoolConfiguration config, MetricsCollector metricsCollector) {
+        if (config.getThreadType() == ThreadType.VIRTUAL) {
+            if (config.getVirtualThreadMode() == VirtualThreadMode.BOUNDED) {
+                return VirtualThreadSupport.createBoundedVirtualThreadExecutor(
+                    "virtual-thread-", config.getMaximumPoolSize());
+            }
+            if (config.getVirtualThreadMode() == VirtualThreadMode.ADAPTIVE) {
+                AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    Math.max(1, config.getCorePoolSize()), 1, config.getMaximumPoolSize());
+                return VirtualThreadSupport.createAdaptiveVirtualThreadExecutor(
+                    "virtual-thread-", limiter, config.getOverloadPolicy());
+            }
+            return createVirtualThreadExecutor();
+        }
+
+        int poolSize = config.getCorePoolSize();
+        ExecutorEngine engine = config.getExecutorEngine();
+        switch (engine) {
+            case WORK_STEALING:
+                return createWorkStealingExecutor(poolSize);
+            case ELASTIC:
+                return new ElasticThreadPoolExecutor(poolSize, config.getMaximumPoolSize(),
+                    config.getKeepAliveTime(), config.getTimeUnit(), metricsCollector);
+            case SHARDED:
+                return ShardedExecutor.start(poolSize, false, metricsCollector);
+            case TWO_CHOICES:
+                return ShardedExecutor.start(poolSize, true, metricsCollector);
+            case FIXED:
+            default:
+                if (config.getQueueCapacity() > 0) {
+                    return createPlatformThreadExecutor(poolSize, config.getQueueCapacity(),
+                        RejectionPolicies.asRejectedExecutionHandler(RejectionPolicies.abort()));
+                }
+                return createPlatformThreadExecutor(poolSize);
+        }
+    }
+
+    /**
+     * Creates a virtual thread executor.
+     *
+     * @return the virtual thread executor
+     */
+    public static ExecutorService createVirtualThreadExecutor() {
+        ThreadFactory threadFactory = Thread.ofVirtual().name("virtual-thread-", 0).factory();
+        return Executors.newThreadPerTaskExecutor(threadFactory);
+    }
+
+    /**
+     * Creates a fixed platform thread executor.
+     *
+     * @param poolSize the pool size
+     * @return the platform thread executor
+     */
+    public static ExecutorService createPlatformThreadExecutor(int poolSize) {
+        return Executors.newFixedThreadPool(poolSize, platformThreadFactory());
+    }
+
+    /**
+     * Creates a fixed platform thread executor with a bounded work queue. Tasks that arrive while
+     * every thread is busy and the queue is full go to the rejection handler, which can be built
+     * from a {@link RejectionPolicy} with {@link RejectionPolicies#asRejectedExecutionHandler}.
+     *
+     * @param poolSize the pool size
+     * @param queueCapacity the capacity of the work queue
+     * @param rejectionHandler the handler for tasks that do not fit
+     * @return the platform thread executor
+     */
+    public static ExecutorService createPlatformThreadExecutor(int poolSize, int queueCapacity,
+                                                               RejectedExecutionHandler rejectionHandler) {
+        logger.debug("Creating fixed platform thread executor with {} threads and queue capacity {}",
+                   poolSize, queueCapacity);
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), platformThreadFactory(), rejectionHandler);
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        return new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setName("platform-thread-" + counter.getAndIncrement());
+                thread.setDaemon(false);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Creates a work-stealing platform thread executor.
+     *
+     * <p>Every worker owns a deque. Tasks submitted from inside a running task are pushed onto the
+     * submitting worker's own deque, and idle workers steal from the deques of busy ones, so workers
+     * do not contend on a single shared queue.</p>
+     *
+     * @param parallelism the number of worker threads
+     * @return the work-stealing executor
+     */
+    public static ExecutorService createWorkStealingExecutor(int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger(0);
+
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("work-stealing-thread-" + counter.getAndIncrement());
+                return thread;
+            }
+        };
+        // FIFO mode suits independent event-style tasks that are never joined
+        ForkJoinPool pool = new ForkJoinPool(parallelism, threadFactory, null, true);
+        logger.debug("Created work-stealing executor with parallelism: {}", parallelism);
+        return pool;
+    }
+}
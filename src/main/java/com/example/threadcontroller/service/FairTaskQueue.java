@@ -0,0 +1,211 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Task queue that shares throughput between tenants in proportion to their weights.
+ *
+ * <p>Each tenant has its own FIFO sub-queue, and dequeue uses deficit round-robin over the tenants
+ * that have work: a tenant's turn starts by adding its weight to its deficit, and it is served one
+ * task per unit of deficit before the turn passes on. Under saturation a tenant with weight 3 gets
+ * three tasks for every one of a tenant with weight 1, however many tasks either has queued. Only
+ * tenants with queued tasks take turns, so a lone tenant can use the whole pool.</p>
+ *
+ * <p>Tasks without a tenant share the {@link #DEFAULT_TENANT} sub-queue. Tenants without a
+ * configured weight get the default weight.</p>
+ */
+public class FairTaskQueue extends AbstractTaskQueue {
+    private static final Logger logger = new Logger(FairTaskQueue.class);
+
+    /**
+     * The tenant used for tasks that are not tagged with one.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    private final Map<String, Lane> lanes;
+    private final ArrayDeque<Lane> activeLanes;
+    private final ConcurrentHashMap<String, Integer> weights;
+    private final int defaultWeight;
+
+    /**
+     * Constructor with a default weight of 1.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     */
+    public FairTaskQueue(int capacity) {
+        this(capacity, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     * @param defaultWeight the weight of tenants without a configured weight
+     */
+    public FairTaskQueue(int capacity, int defaultWeight) {
+        super(capacity);
+        if (defaultWeight <= 0) {
+            throw new IllegalArgumentException("Default weight must be positive");
+        }
+        this.lanes = new HashMap<>();
+        this.activeLanes = new ArrayDeque<>();
+        this.weights = new ConcurrentHashMap<>();
+        this.defaultWeight = defaultWeight;
+        logger.info("Created FairTaskQueue with capacity: {}, default weight: {}", capacity, defaultWeight);
+    }
+
+    /**
+     * Sets a tenant's weight. Takes effect from the tenant's next turn.
+     *
+     * @param tenant the tenant
+     * @param weight the number of tasks the tenant is served per round
+     */
+    public void setTenantWeight(String tenant, int weight) {
+        if (tenant == null) {
+            throw new IllegalArgumentException("Tenant cannot be null");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        weights.put(tenant, weight);
+        logger.info("Set weight of tenant {} to {}", tenant, weight);
+    }
+
+    /**
+     * Gets a tenant's weight.
+     *
+     * @param tenant the tenant
+     * @return the configured weight, or the default weight if none is configured
+     */
+    public int getTenantWeight(String tenant) {
+        return weights.getOrDefault(tenant, defaultWeight);
+    }
+
+    /**
+     * Gets the number of tasks waiting in a tenant's sub-queue.
+     *
+     * @param tenant the tenant
+     * @return the number of waiting tasks of that tenant
+     */
+    public synchronized int getTenantQueueSize(String tenant) {
+        Lane lane = lanes.get(tenant == null ? DEFAULT_TENANT : tenant);
+        return lane == null ? 0 : lane.tasks.size();
+    }
+
+    @Override
+    protected synchronized void enqueue(Task task) {
+        append(task);
+    }
+
+    @Override
+    protected synchronized void enqueueAll(List<Task> tasks) {
+        for (Task task : tasks) {
+            append(task);
+        }
+    }
+
+    @Override
+    protected synchronized Task dequeue() {
+        return next();
+    }
+
+    @Override
+    protected synchronized int dequeueAll(Collection<? super Task> collection, int maxElements) {
+        int removed = 0;
+        Task task;
+        while (removed < maxElements && (task = next()) != null) {
+            collection.add(task);
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    protected synchronized Task peekTask() {
+        Lane lane = activeLanes.peekFirst();
+        return lane == null ? null : lane.tasks.peekFirst();
+    }
+
+    @Override
+    protected synchronized boolean removeTask(Object task) {
+        for (Iterator<Lane> it = activeLanes.iterator(); it.hasNext(); ) {
+            Lane lane = it.next();
+            if (lane.tasks.remove(task)) {
+                if (lane.tasks.isEmpty()) {
+                    it.remove();
+                    lanes.remove(lane.tenant);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected synchronized List<Task> snapshot() {
+        List<Task> snapshot = new ArrayList<>();
+        for (Lane lane : activeLanes) {
+            snapshot.addAll(lane.tasks);
+        }
+        return snapshot;
+    }
+
+    private void append(Task task) {
+        String tenant = task.getTenant() == null ? DEFAULT_TENANT : task.getTenant();
+        Lane lane = lanes.get(tenant);
+        if (lane == null) {
+            lane = new Lane(tenant);
+            lanes.put(tenant, lane);
+            activeLanes.addLast(lane);
+        }
+        lane.tasks.addLast(task);
+    }
+
+    /**
+     * Serves the tenant whose turn it is and passes the turn on when its deficit is used up.
+     *
+     * @return the next task, or null if every sub-queue is empty
+     */
+    private Task next() {
+        Lane lane = activeLanes.peekFirst();
+        if (lane == null) {
+            return null;
+        }
+        if (lane.deficit == 0) {
+            lane.deficit = getTenantWeight(lane.tenant);
+        }
+        Task task = lane.tasks.pollFirst();
+        lane.deficit--;
+        if (lane.tasks.isEmpty()) {
+            // An idle tenant does not bank credit for later
+            activeLanes.pollFirst();
+            lanes.remove(lane.tenant);
+        } else if (lane.deficit == 0) {
+            activeLanes.addLast(activeLanes.pollFirst());
+        }
+        return task;
+    }
+
+    /**
+     * A tenant's sub-queue and its remaining share of the current turn.
+     */
+    private static final class Lane {
+        private final String tenant;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private int deficit;
+
+        Lane(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
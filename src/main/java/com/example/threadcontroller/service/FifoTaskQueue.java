@@ -0,0 +1,64 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Task queue that hands out tasks in submission order.
+ *
+ * <p>The tasks sit in a lock-free linked queue, so producers and consumers only touch the locks of
+ * {@link AbstractTaskQueue} when they have to wait. A batch from {@link #offerBatch(List)} reserves
+ * its capacity and wakes consumers once.</p>
+ */
+public class FifoTaskQueue extends AbstractTaskQueue {
+    private static final Logger logger = new Logger(FifoTaskQueue.class);
+
+    private final ConcurrentLinkedQueue<Task> tasks;
+
+    /**
+     * Constructor for an unbounded queue.
+     */
+    public FifoTaskQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     */
+    public FifoTaskQueue(int capacity) {
+        super(capacity);
+        this.tasks = new ConcurrentLinkedQueue<>();
+        logger.info("Created FifoTaskQueue with capacity: {}", capacity);
+    }
+
+    @Override
+    protected void enqueue(Task task) {
+        tasks.offer(task);
+    }
+
+    @Override
+    protected Task dequeue() {
+        return tasks.poll();
+    }
+
+    @Override
+    protected Task peekTask() {
+        return tasks.peek();
+    }
+
+    @Override
+    protected boolean removeTask(Object task) {
+        return tasks.remove(task);
+    }
+
+    @Override
+    protected List<Task> snapshot() {
+        return new ArrayList<>(tasks);
+    }
+}
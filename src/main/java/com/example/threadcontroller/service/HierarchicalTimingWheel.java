@@ -0,0 +1,342 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical hashed timing wheel that hands tasks to an executor when their delay expires.
+ *
+ * <p>Time is counted in ticks. Level 0 has one bucket per tick for the next {@value #WHEEL_SIZE}
+ * ticks; each higher level has buckets {@value #WHEEL_SIZE} times as wide. A timer is filed at the
+ * level of the most significant base-{@value #WHEEL_SIZE} digit in which its deadline differs
+ * from the current tick, so inserting is a few bit operations. When the current tick rolls a digit
+ * over, the matching bucket one level up is cascaded into the levels below, and level-0 buckets
+ * simply expire. Seven levels cover the whole {@code long} tick range, so there is no overflow
+ * list.</p>
+ *
+ * <p>Only the ticker thread touches the buckets. Other threads hand new and cancelled timers over
+ * through lock-free queues that the ticker drains once per tick, which keeps scheduling and
+ * cancelling O(1) without locks. The ticker parks indefinitely while no timer is pending.</p>
+ *
+ * <p>Wheels are created through the {@code start} factories, which start the ticker once the wheel
+ * is fully constructed.</p>
+ */
+public final class HierarchicalTimingWheel {
+    private static final Logger logger = new Logger(HierarchicalTimingWheel.class);
+
+    private static final int WHEEL_BITS = 9;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = (Long.SIZE - 1 + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Executor dispatcher;
+    private final Bucket[][] wheels;
+    private final ConcurrentLinkedQueue<TimerHandle> pendingInserts;
+    private final ConcurrentLinkedQueue<TimerHandle> pendingCancels;
+    private final AtomicInteger pendingTimers;
+    // Set by start() before the wheel is handed out
+    private Thread ticker;
+    private long currentTick;
+    private volatile boolean idle;
+    private volatile boolean running;
+
+    private HierarchicalTimingWheel(long tickDuration, TimeUnit unit, Executor dispatcher) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher cannot be null");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = System.nanoTime();
+        this.dispatcher = dispatcher;
+        this.wheels = new Bucket[LEVELS][WHEEL_SIZE];
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.pendingInserts = new ConcurrentLinkedQueue<>();
+        this.pendingCancels = new ConcurrentLinkedQueue<>();
+        this.pendingTimers = new AtomicInteger(0);
+        this.running = true;
+    }
+
+    /**
+     * Creates a wheel with a one millisecond tick and starts its ticker.
+     *
+     * @param dispatcher the executor that runs expired tasks
+     * @return the running wheel
+     */
+    public static HierarchicalTimingWheel start(Executor dispatcher) {
+        return start(1, TimeUnit.MILLISECONDS, dispatcher);
+    }
+
+    /**
+     * Creates a wheel and starts its ticker.
+     *
+     * @param tickDuration the resolution of the wheel
+     * @param unit the time unit of the tick duration
+     * @param dispatcher the executor that runs expired tasks
+     * @return the running wheel
+     */
+    public static HierarchicalTimingWheel start(long tickDuration, TimeUnit unit, Executor dispatcher) {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(tickDuration, unit, dispatcher);
+        wheel.ticker = new Thread(wheel::runTicker, "timing-wheel-ticker");
+        wheel.ticker.setDaemon(true);
+        wheel.ticker.start();
+        logger.info("Created HierarchicalTimingWheel with {} levels of {} buckets, tick: {}ns",
+                   LEVELS, WHEEL_SIZE, wheel.tickNanos);
+        return wheel;
+    }
+
+    /**
+     * Schedules a task to be handed to the dispatcher once the delay has passed. The task fires on
+     * the first tick at or after its deadline.
+     *
+     * @param task the task to run
+     * @param delay the delay from now
+     * @param unit the time unit of the delay
+     * @return a handle that can cancel the timer
+     * @throws IllegalStateException if the wheel has been stopped
+     */
+    public TimerHandle schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Cannot schedule task: timing wheel has been stopped");
+        }
+        // Cap far-future delays so the deadline arithmetic cannot overflow
+        long delayNanos = Math.min(Math.max(0, unit.toNanos(delay)), Long.MAX_VALUE / 4);
+        long elapsed = System.nanoTime() - startNanos + delayNanos;
+        long deadlineTick = (elapsed + tickNanos - 1) / tickNanos;
+        TimerHandle handle = new TimerHandle(this, task, deadlineTick);
+        pendingTimers.incrementAndGet();
+        pendingInserts.add(handle);
+        // Publish before checking, so either we see the idle flag or the ticker sees the timer
+        if (idle) {
+            LockSupport.unpark(ticker);
+        }
+        return handle;
+    }
+
+    /**
+     * Called by a handle that was cancelled while pending.
+     *
+     * @param handle the cancelled timer
+     */
+    void cancelled(TimerHandle handle) {
+        pendingTimers.decrementAndGet();
+        pendingCancels.add(handle);
+    }
+
+    private void runTicker() {
+        while (running) {
+            long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+            unlinkCancelled();
+            placeInserted();
+            if (pendingTimers.get() == 0) {
+                // Every bucket is empty, so there is nothing to cascade or expire on the way
+                currentTick = Math.max(currentTick, targetTick);
+            }
+            while (currentTick < targetTick) {
+                advance();
+            }
+            waitForNextTick();
+        }
+    }
+
+    private void waitForNextTick() {
+        if (pendingTimers.get() == 0) {
+            idle = true;
+            // Re-check after publishing the flag so a concurrent schedule cannot be missed
+            if (pendingTimers.get() == 0 && running) {
+                LockSupport.park(this);
+            }
+            idle = false;
+            return;
+        }
+        long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+        long parkNanos = nextTickNanos - System.nanoTime();
+        if (parkNanos > 0) {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    private void unlinkCancelled() {
+        TimerHandle handle;
+        while ((handle = pendingCancels.poll()) != null) {
+            if (handle.bucket != null) {
+                ((Bucket) handle.bucket).remove(handle);
+            }
+        }
+    }
+
+    private void placeInserted() {
+        TimerHandle handle;
+        while ((handle = pendingInserts.poll()) != null) {
+            if (handle.isPending()) {
+                place(handle);
+            }
+        }
+    }
+
+    /**
+     * Files a timer at the level of the highest digit in which its deadline differs from now.
+     *
+     * @param handle the timer to file
+     */
+    private void place(TimerHandle handle) {
+        long deadline = handle.getDeadlineTick();
+        if (deadline <= currentTick) {
+            expire(handle);
+            return;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(deadline ^ currentTick);
+        int level = highestBit / WHEEL_BITS;
+        int slot = (int) ((deadline >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        wheels[level][slot].add(handle);
+    }
+
+    /**
+     * Moves to the next tick: cascades every level whose lower digits just rolled over to zero,
+     * highest first, then expires the level-0 bucket for the tick.
+     */
+    private void advance() {
+        long tick = ++currentTick;
+        int top = 0;
+        while (top + 1 < LEVELS && (tick & ((1L << ((top + 1) * WHEEL_BITS)) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            TimerHandle handle = wheels[level][(int) ((tick >>> (level * WHEEL_BITS)) & WHEEL_MASK)].detachAll();
+            while (handle != null) {
+                TimerHandle next = handle.next;
+                handle.next = null;
+                place(handle);
+                handle = next;
+            }
+        }
+        TimerHandle handle = wheels[0][(int) (tick & WHEEL_MASK)].detachAll();
+        while (handle != null) {
+            TimerHandle next = handle.next;
+            handle.next = null;
+            expire(handle);
+            handle = next;
+        }
+    }
+
+    private void expire(TimerHandle handle) {
+        // A timer cancelled after it was filed loses this race and is skipped
+        if (!handle.expire()) {
+            return;
+        }
+        pendingTimers.decrementAndGet();
+        try {
+            dispatcher.execute(handle.getTask());
+        } catch (RuntimeException e) {
+            logger.error("Failed to dispatch expired timer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of timers that have neither fired nor been cancelled.
+     *
+     * @return the pending timer count
+     */
+    public int getPendingTimerCount() {
+        return pendingTimers.get();
+    }
+
+    /**
+     * Stops the ticker and cancels every pending timer.
+     *
+     * @return the tasks of the timers that had not fired
+     */
+    public List<Runnable> stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> unfired = new ArrayList<>();
+        TimerHandle handle;
+        while ((handle = pendingInserts.poll()) != null) {
+            if (handle.cancel()) {
+                unfired.add(handle.getTask());
+            }
+        }
+        for (Bucket[] wheel : wheels) {
+            for (Bucket bucket : wheel) {
+                handle = bucket.detachAll();
+                while (handle != null) {
+                    if (handle.cancel()) {
+                        unfired.add(handle.getTask());
+                    }
+                    handle = handle.next;
+                }
+            }
+        }
+        pendingCancels.clear();
+        logger.info("Stopped HierarchicalTimingWheel, cancelled {} pending timers", unfired.size());
+        return unfired;
+    }
+
+    /**
+     * Doubly linked list of the timers in one wheel slot.
+     */
+    private static final class Bucket {
+        private TimerHandle head;
+
+        private void add(TimerHandle handle) {
+            handle.bucket = this;
+            handle.prev = null;
+            handle.next = head;
+            if (head != null) {
+                head.prev = handle;
+            }
+            head = handle;
+        }
+
+        private void remove(TimerHandle handle) {
+            if (handle.prev != null) {
+                handle.prev.next = handle.next;
+            } else {
+                head = handle.next;
+            }
+            if (handle.next != null) {
+                handle.next.prev = handle.prev;
+            }
+            handle.prev = null;
+            handle.next = null;
+            handle.bucket = null;
+        }
+
+        /**
+         * Empties the bucket.
+         *
+         * @return the first timer of the detached chain, linked through {@code next}
+         */
+        private TimerHandle detachAll() {
+            TimerHandle first = head;
+            head = null;
+            for (TimerHandle handle = first; handle != null; handle = handle.next) {
+                handle.bucket = null;
+                handle.prev = null;
+            }
+            return first;
+        }
+    }
+}
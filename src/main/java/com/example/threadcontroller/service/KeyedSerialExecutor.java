@@ -0,0 +1,139 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks that share a key one at a time in submission order, while tasks for
+ * different keys run in parallel on the underlying executor.
+ * <p>
+ * Only the task at the head of a key's chain is ever handed to the executor; the
+ * rest wait in a per-key queue and are submitted as the previous one finishes, so
+ * no worker thread is held while a key is busy. A key's entry is removed as soon as
+ * its queue drains, so idle keys cost no memory.
+ * <p>
+ * Once a task has been accepted it always runs: if the executor refuses a follower,
+ * the thread that finished the previous task runs the rest of the chain itself.
+ */
+public class KeyedSerialExecutor {
+    private static final Logger logger = new Logger(KeyedSerialExecutor.class);
+
+    private final Executor executor;
+    private final ConcurrentHashMap<Object, ArrayDeque<Runnable>> pendingByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param executor the executor that runs the tasks
+     */
+    public KeyedSerialExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a task after every task previously submitted with the same key.
+     *
+     * @param key the ordering key
+     * @param task the task to execute
+     * @throws RejectedExecutionException if the underlying executor rejects the task
+     */
+    public void execute(Object key, Runnable task) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+
+        boolean[] head = new boolean[1];
+        // An empty queue marks the key as busy; followers wait in the queue
+        pendingByKey.compute(key, (k, pending) -> {
+            if (pending == null) {
+                head[0] = true;
+                return new ArrayDeque<>(2);
+            }
+            pending.add(task);
+            return pending;
+        });
+
+        if (head[0]) {
+            try {
+                executor.execute(() -> runChain(key, task));
+            } catch (RejectedExecutionException e) {
+                // Hand the key to any followers that queued while we were submitting
+                scheduleNext(key);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs a task and then submits the next one queued under its key.
+     *
+     * @param key the ordering key
+     * @param task the task to run
+     */
+    private void runChain(Object key, Runnable task) {
+        try {
+            task.run();
+        } finally {
+            scheduleNext(key);
+        }
+    }
+
+    /**
+     * Submits the next queued task for a key, or releases the key if none is waiting. If the executor
+     * rejects a follower, for example because it is shutting down, the remaining chain runs on the
+     * current thread so that every accepted task still runs, in order.
+     *
+     * @param key the ordering key
+     */
+    private void scheduleNext(Object key) {
+        Runnable task;
+        while ((task = pollNext(key)) != null) {
+            Runnable next = task;
+            try {
+                executor.execute(() -> runChain(key, next));
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.debug("Executor rejected queued task for key {}; running it on the current thread", key);
+                try {
+                    next.run();
+                } catch (RuntimeException failure) {
+                    logger.error("Queued task for key {} failed: {}", key, failure.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the next queued task for a key, releasing the key if none is waiting.
+     *
+     * @param key the ordering key
+     * @return the next task, or null if the key was released
+     */
+    private Runnable pollNext(Object key) {
+        Runnable[] next = new Runnable[1];
+        pendingByKey.computeIfPresent(key, (k, pending) -> {
+            next[0] = pending.poll();
+            return next[0] == null ? null : pending;
+        });
+        return next[0];
+    }
+
+    /**
+     * Gets the number of keys that currently have a running or queued task.
+     *
+     * @return the number of active keys
+     */
+    public int getActiveKeyCount() {
+        return pendingByKey.size();
+    }
+}
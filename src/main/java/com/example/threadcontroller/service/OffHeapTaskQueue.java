@@ -0,0 +1,323 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.WaitStrategy;
+import com.example.threadcontroller.util.Logger;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, multi-consumer queue of fixed-layout task records stored off-heap.
+ *
+ * <p>Each record is an opcode, up to {@link #ARG_COUNT} long arguments and the enqueue time, written
+ * into a {@link MemorySegment} allocated once from a shared {@link Arena}. Pending records cost no
+ * heap objects at all: producers copy primitives into a slot, and consumers read them through a
+ * reusable {@link TaskRecordView} that points at the slot instead of copying it out. The only
+ * per-slot heap state is one long of sequence number in a primitive array, which the collector
+ * never has to trace.</p>
+ *
+ * <p>Slots are claimed with the same sequence protocol as {@link RingBufferTaskQueue}. A consumer's
+ * slot stays reserved until it calls {@link TaskRecordView#release()}, so producers never overwrite
+ * a record that is still being read.</p>
+ *
+ * <p>{@link #close()} frees the memory; it must only be called once producers and consumers have
+ * stopped, after which any access to the queue or its views fails with
+ * {@link IllegalStateException}.</p>
+ */
+public class OffHeapTaskQueue implements AutoCloseable {
+    private static final Logger logger = new Logger(OffHeapTaskQueue.class);
+
+    /**
+     * The number of long arguments each record holds.
+     */
+    public static final int ARG_COUNT = 4;
+
+    static final long OPCODE_OFFSET = 0;
+    static final long ARGS_OFFSET = Long.BYTES;
+    static final long ENQUEUE_TIME_OFFSET = ARGS_OFFSET + (long) ARG_COUNT * Long.BYTES;
+
+    /**
+     * The size of one record in bytes.
+     */
+    public static final int RECORD_BYTES = (int) ENQUEUE_TIME_OFFSET + Long.BYTES;
+
+    private static final int PAD = 16;
+    private static final int PRODUCER_CURSOR = PAD;
+    private static final int CONSUMER_CURSOR = PAD * 2;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int capacity;
+    private final Arena arena;
+    private final MemorySegment records;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray cursors;
+    private final WaitStrategy producerWaitStrategy;
+    private final WaitStrategy consumerWaitStrategy;
+
+    /**
+     * Constructor with parking wait strategies.
+     *
+     * @param capacity the maximum number of records the queue can hold
+     */
+    public OffHeapTaskQueue(int capacity) {
+        this(capacity, WaitStrategy.PARKING, WaitStrategy.PARKING);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of records the queue can hold
+     * @param producerWaitStrategy how producers wait while the queue is full
+     * @param consumerWaitStrategy how consumers wait while the queue is empty
+     */
+    public OffHeapTaskQueue(int capacity, WaitStrategy producerWaitStrategy, WaitStrategy consumerWaitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (producerWaitStrategy == null || consumerWaitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategies cannot be null");
+        }
+        this.capacity = capacity;
+        this.arena = Arena.ofShared();
+        this.records = arena.allocate((long) capacity * RECORD_BYTES, Long.BYTES);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.cursors = new AtomicLongArray(PAD * 3);
+        this.producerWaitStrategy = producerWaitStrategy;
+        this.consumerWaitStrategy = consumerWaitStrategy;
+        logger.info("Created OffHeapTaskQueue with capacity: {}, off-heap bytes: {}", capacity, records.byteSize());
+    }
+
+    /**
+     * Creates a view for reading dequeued records. A consumer should create one view and reuse it.
+     *
+     * @return a new, unbound view
+     */
+    public TaskRecordView newView() {
+        return new TaskRecordView(this, records);
+    }
+
+    /**
+     * Inserts a record with a single argument if there is space.
+     *
+     * @param opcode the operation code
+     * @param arg0 the first argument
+     * @return true if the record was inserted, false if the queue is full
+     */
+    public boolean offer(int opcode, long arg0) {
+        return offer(opcode, arg0, 0L, 0L, 0L);
+    }
+
+    /**
+     * Inserts a record if there is space.
+     *
+     * @param opcode the operation code
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @return true if the record was inserted, false if the queue is full
+     */
+    public boolean offer(int opcode, long arg0, long arg1, long arg2, long arg3) {
+        long position = cursors.get(PRODUCER_CURSOR);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (cursors.compareAndSet(PRODUCER_CURSOR, position, position + 1)) {
+                    long offset = (long) index * RECORD_BYTES;
+                    records.set(ValueLayout.JAVA_INT, offset + OPCODE_OFFSET, opcode);
+                    records.set(ValueLayout.JAVA_LONG, offset + ARGS_OFFSET, arg0);
+                    records.set(ValueLayout.JAVA_LONG, offset + ARGS_OFFSET + Long.BYTES, arg1);
+                    records.set(ValueLayout.JAVA_LONG, offset + ARGS_OFFSET + 2 * Long.BYTES, arg2);
+                    records.set(ValueLayout.JAVA_LONG, offset + ARGS_OFFSET + 3 * Long.BYTES, arg3);
+                    records.set(ValueLayout.JAVA_LONG, offset + ENQUEUE_TIME_OFFSET, System.nanoTime());
+                    // Publishing the sequence releases the record writes to consumers
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = cursors.get(PRODUCER_CURSOR);
+            } else if (difference < 0) {
+                // The slot still holds a record from one lap ago: the ring is full
+                return false;
+            } else {
+                position = cursors.get(PRODUCER_CURSOR);
+            }
+        }
+    }
+
+    /**
+     * Inserts a record, waiting according to the producer wait strategy while the queue is full.
+     *
+     * @param opcode the operation code
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void put(int opcode, long arg0, long arg1, long arg2, long arg3) throws InterruptedException {
+        int round = 0;
+        while (!offer(opcode, arg0, arg1, arg2, arg3)) {
+            await(producerWaitStrategy, round++);
+        }
+    }
+
+    /**
+     * Binds the view to the next record if one is ready. The record's slot stays reserved until the
+     * view is released.
+     *
+     * @param view a released view of this queue
+     * @return true if the view now points at a record, false if the queue is empty
+     * @throws IllegalStateException if the view still holds a record
+     */
+    public boolean poll(TaskRecordView view) {
+        if (view.getQueue() != this) {
+            throw new IllegalArgumentException("View belongs to a different queue");
+        }
+        if (view.isBound()) {
+            throw new IllegalStateException("View still holds a record; release it first");
+        }
+        long position = cursors.get(CONSUMER_CURSOR);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (cursors.compareAndSet(CONSUMER_CURSOR, position, position + 1)) {
+                    view.bind(index, position, (long) index * RECORD_BYTES);
+                    return true;
+                }
+                position = cursors.get(CONSUMER_CURSOR);
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = cursors.get(CONSUMER_CURSOR);
+            }
+        }
+    }
+
+    /**
+     * Binds the view to the next record, waiting up to the timeout for one.
+     *
+     * @param view a released view of this queue
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout
+     * @return true if the view now points at a record, false if the timeout expired
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean poll(TaskRecordView view, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        while (!poll(view)) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            await(consumerWaitStrategy, round++);
+        }
+        return true;
+    }
+
+    /**
+     * Binds the view to the next record, waiting according to the consumer wait strategy.
+     *
+     * @param view a released view of this queue
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void take(TaskRecordView view) throws InterruptedException {
+        int round = 0;
+        while (!poll(view)) {
+            await(consumerWaitStrategy, round++);
+        }
+    }
+
+    /**
+     * Hands a slot read through a view to the producer one lap ahead.
+     *
+     * @param index the slot index
+     * @param position the position the slot was claimed at
+     */
+    void release(int index, long position) {
+        sequences.setRelease(index, position + capacity);
+    }
+
+    /**
+     * Backs off once before the caller retries.
+     *
+     * @param strategy the wait strategy of the caller
+     * @param round the number of retries so far
+     * @throws InterruptedException if the thread has been interrupted
+     */
+    private void await(WaitStrategy strategy, int round) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (strategy == WaitStrategy.BUSY_SPIN || round < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (strategy == WaitStrategy.YIELDING || round < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(round - YIELD_TRIES, 10);
+            LockSupport.parkNanos(this, Math.min(MAX_PARK_NANOS, 1000L << shift));
+        }
+    }
+
+    private int index(long position) {
+        return (int) (position % capacity);
+    }
+
+    /**
+     * Gets the number of records that have been inserted and not yet dequeued.
+     *
+     * @return the number of pending records
+     */
+    public int size() {
+        // Read the consumer cursor first so a concurrent dequeue cannot make the result negative
+        long consumed = cursors.get(CONSUMER_CURSOR);
+        long produced = cursors.get(PRODUCER_CURSOR);
+        return (int) Math.max(0, Math.min(capacity, produced - consumed));
+    }
+
+    /**
+     * Checks whether no record is pending.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets the maximum number of records the queue can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the size of the off-heap record storage.
+     *
+     * @return the allocated bytes
+     */
+    public long getOffHeapBytes() {
+        return records.byteSize();
+    }
+
+    /**
+     * Frees the off-heap memory.
+     */
+    @Override
+    public void close() {
+        arena.close();
+        logger.info("Closed OffHeapTaskQueue and freed {} bytes", (long) capacity * RECORD_BYTES);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.TaskPriority;
+import com.example.threadcontroller.util.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task queue with one FIFO lane per {@link TaskPriority}.
+ *
+ * <p>Enqueue appends to the task's lane. Dequeue looks at the head of each lane and serves the one
+ * with the best effective priority, where every {@code agingMillis} a task has waited promotes it by
+ * one level. Both operations touch a fixed number of lock-free lanes, so they stay O(1) under
+ * contention, and a low-priority task is eventually served however busy the higher lanes are.</p>
+ */
+public class PriorityTaskQueue extends AbstractTaskQueue {
+    private static final Logger logger = new Logger(PriorityTaskQueue.class);
+
+    private final Queue<Task>[] lanes;
+    private final long agingMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     * @param agingMillis the wait after which a task is promoted by one priority level, or 0 to disable aging
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityTaskQueue(int capacity, long agingMillis) {
+        super(capacity);
+        if (agingMillis < 0) {
+            throw new IllegalArgumentException("Aging interval must be >= 0");
+        }
+        TaskPriority[] priorities = TaskPriority.values();
+        this.lanes = (Queue<Task>[]) new Queue<?>[priorities.length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.agingMillis = agingMillis;
+        logger.info("Created PriorityTaskQueue with {} lanes, capacity: {}, aging: {}ms",
+                   lanes.length, capacity, agingMillis);
+    }
+
+    @Override
+    protected void enqueue(Task task) {
+        lanes[task.getPriority().ordinal()].offer(task);
+    }
+
+    @Override
+    protected Task dequeue() {
+        while (true) {
+            int lane = selectLane();
+            if (lane < 0) {
+                return null;
+            }
+            // Another consumer may have emptied the lane since it was selected
+            Task task = lanes[lane].poll();
+            if (task != null) {
+                return task;
+            }
+        }
+    }
+
+    @Override
+    protected Task peekTask() {
+        int lane = selectLane();
+        return lane < 0 ? null : lanes[lane].peek();
+    }
+
+    /**
+     * Picks the lane whose head has the best effective priority after aging.
+     *
+     * @return the lane index, or -1 if every lane is empty
+     */
+    private int selectLane() {
+        long now = agingMillis > 0 ? System.nanoTime() : 0L;
+        int bestLane = -1;
+        long bestLevel = Long.MAX_VALUE;
+        for (int i = 0; i < lanes.length; i++) {
+            Task head = lanes[i].peek();
+            if (head == null) {
+                continue;
+            }
+            long level = i;
+            if (agingMillis > 0) {
+                level -= TimeUnit.NANOSECONDS.toMillis(now - head.getSubmissionTimeNanos()) / agingMillis;
+            }
+            if (level < bestLevel) {
+                bestLevel = level;
+                bestLane = i;
+            }
+        }
+        return bestLane;
+    }
+
+    /**
+     * Gets the number of tasks waiting in the lane of a priority.
+     *
+     * @param priority the priority
+     * @return the number of waiting tasks in that lane
+     */
+    public int getLaneSize(TaskPriority priority) {
+        return lanes[priority.ordinal()].size();
+    }
+
+    @Override
+    protected boolean removeTask(Object task) {
+        for (Queue<Task> lane : lanes) {
+            if (lane.remove(task)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected List<Task> snapshot() {
+        List<Task> snapshot = new ArrayList<>();
+        for (Queue<Task> lane : lanes) {
+            snapshot.addAll(lane);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standard {@link RejectionPolicy} implementations.
+ */
+public final class RejectionPolicies {
+    private static final Logger logger = new Logger(RejectionPolicies.class);
+
+    private static final long POOL_CAPACITY_POLL_MILLIS = 1;
+
+    private static final RejectionPolicy<Object> CALLER_RUNS = (item, target) -> {
+        if (!(target instanceof CallerRunsAdmissionTarget)) {
+            throw new RejectedExecutionException("Rejected: items of this target cannot run in the caller");
+        }
+        ((CallerRunsAdmissionTarget<Object>) target).runInCaller(item);
+        return CompletableFuture.completedFuture(null);
+    };
+
+    private RejectionPolicies() {
+        // Static factory methods only
+    }
+
+    /**
+     * Rejects the item by throwing {@link RejectedExecutionException}.
+     *
+     * @param <T> the type of item being admitted
+     * @return the abort policy
+     */
+    public static <T> RejectionPolicy<T> abort() {
+        return (item, target) -> {
+            throw new RejectedExecutionException("Rejected: no capacity available");
+        };
+    }
+
+    /**
+     * Runs the item on the submitting thread, which slows the producer down to the rate at which
+     * it can do the work itself. Only targets implementing {@link CallerRunsAdmissionTarget} can
+     * run items; for any other target the item is rejected.
+     *
+     * @param <T> the type of item being admitted
+     * @return the caller-runs policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RejectionPolicy<T> callerRuns() {
+        return (RejectionPolicy<T>) (RejectionPolicy<?>) CALLER_RUNS;
+    }
+
+    /**
+     * Checks whether a policy is the caller-runs policy, for targets whose items cannot run on
+     * their own and must refuse it up front.
+     *
+     * @param policy the policy to check
+     * @return true if the policy is {@link #callerRuns()}
+     */
+    static boolean isCallerRuns(RejectionPolicy<?> policy) {
+        return policy == CALLER_RUNS;
+    }
+
+    /**
+     * Blocks the submitting thread until capacity frees up or the timeout expires.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout
+     * @param <T> the type of item being admitted
+     * @return the block-with-timeout policy
+     */
+    public static <T> RejectionPolicy<T> blockWithTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must be >= 0");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Time unit cannot be null");
+        }
+        return (item, target) -> {
+            try {
+                if (target.tryAdmit(item, timeout, unit)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for capacity", e);
+            }
+            throw new RejectedExecutionException(
+                String.format("Rejected: no capacity freed within %d %s", timeout, unit));
+        };
+    }
+
+    /**
+     * Discards the oldest waiting item to make room for the new one. The discarded item is failed
+     * by the target.
+     *
+     * @param <T> the type of item being admitted
+     * @return the drop-oldest policy
+     */
+    public static <T> RejectionPolicy<T> dropOldest() {
+        return (item, target) -> {
+            while (!target.tryAdmit(item)) {
+                if (!target.dropOldest()) {
+                    throw new RejectedExecutionException("Rejected: no waiting item to drop");
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    /**
+     * Never blocks or rejects: the item is parked and admitted once capacity frees. The returned
+     * stage completes when the item has been admitted, which lets asynchronous producers apply
+     * backpressure without holding a thread.
+     *
+     * @param <T> the type of item being admitted
+     * @return the async policy
+     */
+    public static <T> RejectionPolicy<T> async() {
+        return (item, target) -> {
+            CompletableFuture<Void> admitted = new CompletableFuture<>();
+            admitWhenFree(item, target, admitted);
+            return admitted;
+        };
+    }
+
+    /**
+     * Retries admission each time the target signals that capacity may be available.
+     *
+     * @param item the item to admit
+     * @param target the full target
+     * @param admitted completed once the item is admitted
+     * @param <T> the type of item being admitted
+     */
+    private static <T> void admitWhenFree(T item, AdmissionTarget<T> target, CompletableFuture<Void> admitted) {
+        try {
+            // Register before re-checking so a release in between is not lost
+            CompletionStage<Void> signal = target.awaitCapacity();
+            if (target.tryAdmit(item)) {
+                admitted.complete(null);
+                return;
+            }
+            signal.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    admitted.completeExceptionally(error);
+                } else {
+                    admitWhenFree(item, target, admitted);
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Adapts a rejection policy to a {@link ThreadPoolExecutor}, whose work queue becomes the
+     * admission target. The pool has no hook for queue removals, so the async policy polls for
+     * capacity every millisecond.
+     *
+     * @param policy the rejection policy to apply
+     * @return a rejected execution handler applying the policy
+     */
+    public static RejectedExecutionHandler asRejectedExecutionHandler(RejectionPolicy<Runnable> policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Rejection policy cannot be null");
+        }
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+            }
+            policy.rejected(task, new ThreadPoolTarget(executor));
+        };
+    }
+
+    /**
+     * Admission target over the work queue of a thread pool.
+     */
+    private static final class ThreadPoolTarget implements CallerRunsAdmissionTarget<Runnable> {
+        private final ThreadPoolExecutor executor;
+
+        private ThreadPoolTarget(ThreadPoolExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean tryAdmit(Runnable task) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+            }
+            return executor.getQueue().offer(task);
+        }
+
+        @Override
+        public boolean tryAdmit(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+            }
+            return executor.getQueue().offer(task, timeout, unit);
+        }
+
+        @Override
+        public boolean dropOldest() {
+            Runnable oldest = executor.getQueue().poll();
+            if (oldest == null) {
+                return false;
+            }
+            // Tasks from submit() are futures; cancel them so their callers are not left waiting
+            if (oldest instanceof Future) {
+                ((Future<?>) oldest).cancel(false);
+            }
+            logger.debug("Dropped oldest queued task to make room for a newer one");
+            return true;
+        }
+
+        @Override
+        public void runInCaller(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public CompletionStage<Void> awaitCapacity() {
+            return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(POOL_CAPACITY_POLL_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.threadcontroller.service;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Decides what happens to an item that does not fit into a full {@link AdmissionTarget}.
+ * <p>
+ * A policy is only consulted after a non-blocking admission attempt has failed. Standard
+ * implementations are available from {@link RejectionPolicies}.
+ *
+ * @param <T> the type of item being admitted
+ */
+@FunctionalInterface
+public interface RejectionPolicy<T> {
+
+    /**
+     * Handles an item that the target had no capacity for.
+     *
+     * @param item the rejected item
+     * @param target the full target
+     * @return a stage that completes once the item has been admitted or run, or completes
+     *         exceptionally if the policy gives up on it
+     * @throws RejectedExecutionException if the policy rejects the item immediately
+     */
+    CompletionStage<Void> rejected(T item, AdmissionTarget<T> target);
+}
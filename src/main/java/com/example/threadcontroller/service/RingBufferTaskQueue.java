@@ -0,0 +1,335 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.WaitStrategy;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer, multi-consumer task queue backed by a preallocated ring.
+ *
+ * <p>Every slot carries a sequence number that tells producers and consumers whether it is free
+ * to write or ready to read, so a position is claimed with a single CAS on the producer or consumer
+ * cursor and no node is allocated per task. The two cursors sit in separate cache lines so that
+ * producers and consumers do not invalidate each other's line on every operation.</p>
+ *
+ * <p>Blocking operations never take a lock; producers waiting for space and consumers waiting for
+ * tasks retry according to their own {@link WaitStrategy}.</p>
+ */
+public class RingBufferTaskQueue extends AbstractQueue<Task> implements BatchTaskQueue {
+    // 16 longs = 128 bytes, enough to keep each cursor off its neighbours' cache lines and adjacent-line prefetch
+    private static final int PAD = 16;
+    private static final int PRODUCER_CURSOR = PAD;
+    private static final int CONSUMER_CURSOR = PAD * 2;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int capacity;
+    private final AtomicReferenceArray<Task> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray cursors;
+    private final WaitStrategy producerWaitStrategy;
+    private final WaitStrategy consumerWaitStrategy;
+
+    /**
+     * Constructor with parking wait strategies.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     */
+    public RingBufferTaskQueue(int capacity) {
+        this(capacity, WaitStrategy.PARKING, WaitStrategy.PARKING);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of tasks the queue can hold
+     * @param producerWaitStrategy how producers wait while the queue is full
+     * @param consumerWaitStrategy how consumers wait while the queue is empty
+     */
+    public RingBufferTaskQueue(int capacity, WaitStrategy producerWaitStrategy, WaitStrategy consumerWaitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (producerWaitStrategy == null || consumerWaitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategies cannot be null");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.cursors = new AtomicLongArray(PAD * 3);
+        this.producerWaitStrategy = producerWaitStrategy;
+        this.consumerWaitStrategy = consumerWaitStrategy;
+    }
+
+    @Override
+    public boolean offer(Task task) {
+        if (task == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+        long position = cursors.get(PRODUCER_CURSOR);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (cursors.compareAndSet(PRODUCER_CURSOR, position, position + 1)) {
+                    slots.setPlain(index, task);
+                    // Publishing the sequence releases the slot write to consumers
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = cursors.get(PRODUCER_CURSOR);
+            } else if (difference < 0) {
+                // The slot still holds a task from one lap ago: the ring is full
+                return false;
+            } else {
+                position = cursors.get(PRODUCER_CURSOR);
+            }
+        }
+    }
+
+    /**
+     * Claims a run of free slots with a single CAS and publishes the tasks into them.
+     *
+     * @param tasks the tasks to insert
+     * @return the number of tasks inserted, counted from the start of the list
+     */
+    @Override
+    public int offerBatch(List<Task> tasks) {
+        for (Task task : tasks) {
+            if (task == null) {
+                throw new NullPointerException("Task cannot be null");
+            }
+        }
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        int wanted = Math.min(tasks.size(), capacity);
+        while (true) {
+            long position = cursors.get(PRODUCER_CURSOR);
+            int free = 0;
+            while (free < wanted && sequences.get(index(position + free)) == position + free) {
+                free++;
+            }
+            if (free == 0) {
+                if (sequences.get(index(position)) - position < 0) {
+                    return 0;
+                }
+                // Another producer moved the cursor; retry from its new position
+                continue;
+            }
+            if (cursors.compareAndSet(PRODUCER_CURSOR, position, position + free)) {
+                for (int i = 0; i < free; i++) {
+                    int index = index(position + i);
+                    slots.setPlain(index, tasks.get(i));
+                    sequences.setRelease(index, position + i + 1);
+                }
+                return free;
+            }
+        }
+    }
+
+    @Override
+    public Task poll() {
+        long position = cursors.get(CONSUMER_CURSOR);
+        while (true) {
+            int index = index(position);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (cursors.compareAndSet(CONSUMER_CURSOR, position, position + 1)) {
+                    Task task = slots.getPlain(index);
+                    slots.setPlain(index, null);
+                    // Hand the slot to the producer one lap ahead
+                    sequences.setRelease(index, position + capacity);
+                    return task;
+                }
+                position = cursors.get(CONSUMER_CURSOR);
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = cursors.get(CONSUMER_CURSOR);
+            }
+        }
+    }
+
+    @Override
+    public Task peek() {
+        long position = cursors.get(CONSUMER_CURSOR);
+        int index = index(position);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        return slots.get(index);
+    }
+
+    @Override
+    public void put(Task task) throws InterruptedException {
+        int round = 0;
+        while (!offer(task)) {
+            await(producerWaitStrategy, round++);
+        }
+    }
+
+    @Override
+    public boolean offer(Task task, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        while (!offer(task)) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            await(producerWaitStrategy, round++);
+        }
+        return true;
+    }
+
+    @Override
+    public Task take() throws InterruptedException {
+        int round = 0;
+        Task task;
+        while ((task = poll()) == null) {
+            await(consumerWaitStrategy, round++);
+        }
+        return task;
+    }
+
+    @Override
+    public Task poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        Task task;
+        while ((task = poll()) == null) {
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            await(consumerWaitStrategy, round++);
+        }
+        return task;
+    }
+
+    /**
+     * Backs off once before the caller retries.
+     *
+     * @param strategy the wait strategy of the caller
+     * @param round the number of retries so far
+     * @throws InterruptedException if the thread has been interrupted
+     */
+    private void await(WaitStrategy strategy, int round) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (strategy == WaitStrategy.BUSY_SPIN || round < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (strategy == WaitStrategy.YIELDING || round < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(round - YIELD_TRIES, 10);
+            LockSupport.parkNanos(this, Math.min(MAX_PARK_NANOS, 1000L << shift));
+        }
+    }
+
+    @Override
+    public int size() {
+        // Read the consumer cursor first so a concurrent dequeue cannot make the result negative
+        long consumed = cursors.get(CONSUMER_CURSOR);
+        long produced = cursors.get(PRODUCER_CURSOR);
+        long size = produced - consumed;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super Task> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Task> collection, int maxElements) {
+        if (collection == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+        int wanted = Math.min(maxElements, capacity);
+        while (wanted > 0) {
+            long position = cursors.get(CONSUMER_CURSOR);
+            int ready = 0;
+            while (ready < wanted && sequences.get(index(position + ready)) == position + ready + 1) {
+                ready++;
+            }
+            if (ready == 0) {
+                if (sequences.get(index(position)) - (position + 1) < 0) {
+                    return 0;
+                }
+                continue;
+            }
+            // Claim the whole published run at once, then release each slot to producers
+            if (cursors.compareAndSet(CONSUMER_CURSOR, position, position + ready)) {
+                for (int i = 0; i < ready; i++) {
+                    int index = index(position + i);
+                    collection.add(slots.getPlain(index));
+                    slots.setPlain(index, null);
+                    sequences.setRelease(index, position + i + capacity);
+                }
+                return ready;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the published tasks, in FIFO order.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        List<Task> snapshot = new ArrayList<>();
+        long consumed = cursors.get(CONSUMER_CURSOR);
+        long produced = cursors.get(PRODUCER_CURSOR);
+        for (long position = consumed; position < produced; position++) {
+            int index = index(position);
+            Task task = slots.get(index);
+            if (task != null && sequences.get(index) == position + 1) {
+                snapshot.add(task);
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    /**
+     * Gets the wait strategy used by producers while the queue is full.
+     *
+     * @return the producer wait strategy
+     */
+    public WaitStrategy getProducerWaitStrategy() {
+        return producerWaitStrategy;
+    }
+
+    /**
+     * Gets the wait strategy used by consumers while the queue is empty.
+     *
+     * @return the consumer wait strategy
+     */
+    public WaitStrategy getConsumerWaitStrategy() {
+        return consumerWaitStrategy;
+    }
+
+    private int index(long position) {
+        return (int) (position % capacity);
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread-per-shard executor.
+ *
+ * <p>Each shard owns one worker thread and a queue that only that worker consumes from, so
+ * workers never contend with each other on a shared queue. Keyed submissions go to the shard
+ * picked by the key's hash, which keeps tasks for the same key on the same thread; unkeyed
+ * submissions are spread round-robin. A worker whose own queue is empty steals a task from the
+ * busiest other shard before going idle. An idle worker parks until a task arrives for its own
+ * shard, or until a task lands on a shard whose worker is busy and can be stolen.</p>
+ *
+ * <p>Because of stealing, hash routing gives thread affinity but not ordering. Use
+ * {@link KeyedSerialExecutor} when tasks for a key must run in submission order.</p>
+ *
+ * <p>In power-of-two-choices mode, unkeyed submissions sample two random shards and go to the one
+ * with the shorter queue, and workers do not steal. This keeps queue depths close without a shared
+ * queue or a full scan per submission. In both modes a sample of submissions records the spread
+ * between the longest and shortest shard queue as the queue imbalance.</p>
+ *
+ * <p>Instances are created through {@link #start(int)} and {@link #start(int, boolean, MetricsCollector)},
+ * which start the workers once the executor is fully constructed.</p>
+ */
+public final class ShardedExecutor extends AbstractExecutorService {
+    private static final Logger logger = new Logger(ShardedExecutor.class);
+
+    private static final int SPIN_TRIES = 64;
+    private static final int IMBALANCE_SAMPLE_MASK = 63;
+
+    private final Shard[] shards;
+    private final boolean twoChoices;
+    private final MetricsCollector metricsCollector;
+    private final AtomicInteger nextShard = new AtomicInteger(0);
+    private final AtomicLong stolenTasks = new AtomicLong(0);
+    private final AtomicInteger activeSubmissions = new AtomicInteger(0);
+    private final AtomicInteger parkedWorkers = new AtomicInteger(0);
+    private final CountDownLatch terminationLatch;
+    private volatile boolean isShutdown;
+
+    private ShardedExecutor(int shardCount, boolean twoChoices, MetricsCollector metricsCollector) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = new Shard[shardCount];
+        this.twoChoices = twoChoices;
+        this.metricsCollector = metricsCollector;
+        this.terminationLatch = new CountDownLatch(shardCount);
+        this.isShutdown = false;
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    /**
+     * Creates a round-robin executor with stealing and starts its workers.
+     *
+     * @param shardCount the number of shards, and therefore worker threads
+     * @return the running executor
+     */
+    public static ShardedExecutor start(int shardCount) {
+        return start(shardCount, false, new MetricsCollector());
+    }
+
+    /**
+     * Creates an executor with the given routing mode and starts its workers.
+     *
+     * @param shardCount the number of shards, and therefore worker threads
+     * @param twoChoices true to place unkeyed tasks on the shorter of two random shards instead of
+     *                   round-robin with stealing
+     * @param metricsCollector the metrics collector that records queue imbalance
+     * @return the running executor
+     */
+    public static ShardedExecutor start(int shardCount, boolean twoChoices, MetricsCollector metricsCollector) {
+        ShardedExecutor executor = new ShardedExecutor(shardCount, twoChoices, metricsCollector);
+        for (Shard shard : executor.shards) {
+            shard.worker = new Thread(() -> executor.runWorker(shard), "sharded-thread-" + shard.index);
+            shard.worker.setDaemon(false);
+            shard.worker.start();
+        }
+        logger.info("Created ShardedExecutor with {} shards, routing: {}",
+                   shardCount, twoChoices ? "power-of-two-choices" : "round-robin with stealing");
+        return executor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (twoChoices) {
+            submitToShard(shorterOfTwo(), command);
+            return;
+        }
+        int index = Math.floorMod(nextShard.getAndIncrement(), shards.length);
+        submitToShard(shards[index], command);
+    }
+
+    /**
+     * Samples two distinct random shards and returns the one with the shorter queue.
+     *
+     * @return the chosen shard
+     */
+    private Shard shorterOfTwo() {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(shards.length);
+        int second = random.nextInt(shards.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Shard a = shards[first];
+        Shard b = shards[second];
+        return a.size.get() <= b.size.get() ? a : b;
+    }
+
+    /**
+     * Executes a task on the shard that owns the key.
+     *
+     * @param key the routing key
+     * @param command the task to execute
+     */
+    public void execute(Object key, Runnable command) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        submitToShard(shards[shardIndex(key)], command);
+    }
+
+    /**
+     * Gets the index of the shard that owns a key.
+     *
+     * @param key the routing key
+     * @return the shard index
+     */
+    public int shardIndex(Object key) {
+        int h = key.hashCode();
+        // Spread the high bits so keys with similar low bits do not cluster
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shards.length);
+    }
+
+    private void submitToShard(Shard shard, Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+        // Workers do not exit while a submission that passed the shutdown check is still enqueueing
+        activeSubmissions.incrementAndGet();
+        try {
+            if (isShutdown) {
+                throw new RejectedExecutionException("Cannot execute task: executor has been shut down");
+            }
+            shard.queue.offer(command);
+            shard.size.incrementAndGet();
+        } finally {
+            activeSubmissions.decrementAndGet();
+        }
+        if (shard.parked) {
+            LockSupport.unpark(shard.worker);
+        } else if (!twoChoices && parkedWorkers.get() > 0) {
+            // The owner is busy, so the new task is backlog that an idle worker can steal
+            wakeStealer(shard);
+        }
+        // Sample without a shared counter so the submission path stays contention-free
+        if ((ThreadLocalRandom.current().nextInt() & IMBALANCE_SAMPLE_MASK) == 0) {
+            metricsCollector.recordQueueImbalance(getQueueImbalance());
+        }
+    }
+
+    /**
+     * Unparks one idle worker other than the shard's own, searching from the next shard on.
+     *
+     * @param shard the shard that received a task
+     */
+    private void wakeStealer(Shard shard) {
+        for (int i = 1; i < shards.length; i++) {
+            Shard candidate = shards[(shard.index + i) % shards.length];
+            if (candidate.parked) {
+                LockSupport.unpark(candidate.worker);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Worker loop for a shard: runs its own tasks, steals when empty and parks when there is
+     * nothing to steal either.
+     *
+     * @param shard the shard owned by the calling thread
+     */
+    private void runWorker(Shard shard) {
+        try {
+            int idleRounds = 0;
+            while (true) {
+                Runnable task = shard.poll();
+                if (task == null && !twoChoices) {
+                    task = steal(shard);
+                }
+                if (task != null) {
+                    idleRounds = 0;
+                    runTask(task);
+                    continue;
+                }
+                // A submission that saw the flag unset has enqueued once the counter reads zero
+                if (isShutdown && activeSubmissions.get() == 0 && shard.size.get() == 0) {
+                    break;
+                }
+                idle(shard, idleRounds++);
+            }
+        } finally {
+            terminationLatch.countDown();
+        }
+    }
+
+    /**
+     * Waits for work without burning a core: spins briefly, then yields, then parks until a
+     * submission or shutdown wakes the worker.
+     *
+     * @param shard the idle shard
+     * @param idleRounds the number of consecutive rounds without work
+     */
+    private void idle(Shard shard, int idleRounds) {
+        if (idleRounds < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idleRounds < SPIN_TRIES * 2) {
+            Thread.yield();
+        } else {
+            shard.parked = true;
+            parkedWorkers.incrementAndGet();
+            // Re-check after publishing the flag so a concurrent submit cannot be missed
+            if (shard.size.get() == 0 && !isShutdown && (twoChoices || busiestOther(shard) == null)) {
+                LockSupport.park(this);
+            }
+            parkedWorkers.decrementAndGet();
+            shard.parked = false;
+        }
+    }
+
+    /**
+     * Finds the other shard with the longest queue.
+     *
+     * @param thief the shard looking for work
+     * @return the busiest other shard, or null if every other shard is empty
+     */
+    private Shard busiestOther(Shard thief) {
+        Shard busiest = null;
+        int busiestSize = 0;
+        for (Shard shard : shards) {
+            if (shard == thief) {
+                continue;
+            }
+            int size = shard.size.get();
+            if (size > busiestSize) {
+                busiest = shard;
+                busiestSize = size;
+            }
+        }
+        return busiest;
+    }
+
+    /**
+     * Takes one task from the busiest other shard.
+     *
+     * @param thief the shard looking for work
+     * @return the stolen task, or null if every other shard is empty
+     */
+    private Runnable steal(Shard thief) {
+        Shard victim = busiestOther(thief);
+        if (victim == null) {
+            return null;
+        }
+        Runnable task = victim.poll();
+        if (task != null) {
+            stolenTasks.incrementAndGet();
+        }
+        return task;
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Task failed in shard worker: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the number of tasks waiting in a shard's queue.
+     *
+     * @param index the shard index
+     * @return the queue size of the shard
+     */
+    public int getShardQueueSize(int index) {
+        return shards[index].size.get();
+    }
+
+    /**
+     * Gets the difference between the longest and shortest shard queue.
+     *
+     * @return the current queue imbalance
+     */
+    public int getQueueImbalance() {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (Shard shard : shards) {
+            int size = shard.size.get();
+            min = Math.min(min, size);
+            max = Math.max(max, size);
+        }
+        return max - min;
+    }
+
+    /**
+     * Checks whether unkeyed tasks are placed with power-of-two-choices.
+     *
+     * @return true in power-of-two-choices mode
+     */
+    public boolean isTwoChoices() {
+        return twoChoices;
+    }
+
+    /**
+     * Gets the number of tasks that ran on a different shard than the one they were routed to.
+     *
+     * @return the stolen task count
+     */
+    public long getStolenTaskCount() {
+        return stolenTasks.get();
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.worker);
+        }
+        logger.info("ShardedExecutor shutdown initiated");
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> pending = new ArrayList<>();
+        for (Shard shard : shards) {
+            Runnable task;
+            while ((task = shard.poll()) != null) {
+                pending.add(task);
+            }
+            shard.worker.interrupt();
+        }
+        logger.info("ShardedExecutor shutdownNow returned {} pending tasks", pending.size());
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminationLatch.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminationLatch.await(timeout, unit);
+    }
+
+    /**
+     * A single shard: one worker thread and the queue it consumes.
+     */
+    private static final class Shard {
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger(0);
+        private final int index;
+        // Set by start() before the executor is handed out
+        private Thread worker;
+        private volatile boolean parked;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private Runnable poll() {
+            Runnable task = queue.poll();
+            if (task != null) {
+                size.decrementAndGet();
+            }
+            return task;
+        }
+    }
+}
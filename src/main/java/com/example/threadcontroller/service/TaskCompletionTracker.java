@@ -1,5 +1,6 @@
 package com.example.threadcontroller.service;
 
+import com.example.threadcontroller.model.Task;
 import com.example.threadcontroller.util.Logger;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -9,11 +10,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tracker for monitoring task completion during shutdown.
+ *
+ * <p>String IDs that {@link Task#parseNumericId(String)} accepts are tracked under their numeric
+ * form, so {@code "42"} and {@code 42L} name the same task.</p>
  */
 public class TaskCompletionTracker {
     private static final Logger logger = new Logger(TaskCompletionTracker.class);
 
     private final ConcurrentMap<String, TaskStatus> taskStatuses;
+    private final ConcurrentMap<Long, TaskStatus> numericTaskStatuses;
     private final AtomicInteger submittedTasks;
     private final AtomicInteger completedTasks;
     private final AtomicInteger failedTasks;
@@ -25,6 +30,7 @@ public class TaskCompletionTracker {
      */
     public TaskCompletionTracker() {
         this.taskStatuses = new ConcurrentHashMap<>();
+        this.numericTaskStatuses = new ConcurrentHashMap<>();
         this.submittedTasks = new AtomicInteger(0);
         this.completedTasks = new AtomicInteger(0);
         this.failedTasks = new AtomicInteger(0);
@@ -38,6 +44,11 @@ public class TaskCompletionTracker {
      * @param taskId the task ID
      */
     public void registerTask(String taskId) {
+        long numericId = Task.parseNumericId(taskId);
+        if (numericId != 0) {
+            registerTask(numericId);
+            return;
+        }
         synchronized (lock) {
             if (shutdownInitiated.get()) {
                 logger.warn("Cannot register task {} - shutdown has been initiated", taskId);
@@ -56,6 +67,11 @@ public class TaskCompletionTracker {
      * @param taskId the task ID
      */
     public void markTaskCompleted(String taskId) {
+        long numericId = Task.parseNumericId(taskId);
+        if (numericId != 0) {
+            markTaskCompleted(numericId);
+            return;
+        }
         TaskStatus previousStatus = taskStatuses.put(taskId, TaskStatus.COMPLETED);
         completedTasks.incrementAndGet();
         logger.debug("Marked task as completed: {}. Previous status: {}", taskId, previousStatus);
@@ -68,6 +84,11 @@ public class TaskCompletionTracker {
      * @param errorMessage the error message
      */
     public void markTaskFailed(String taskId, String errorMessage) {
+        long numericId = Task.parseNumericId(taskId);
+        if (numericId != 0) {
+            markTaskFailed(numericId, errorMessage);
+            return;
+        }
         taskStatuses.put(taskId, TaskStatus.FAILED);
         failedTasks.incrementAndGet();
         logger.debug("Marked task as failed: {}. Error: {}", taskId, errorMessage);
@@ -80,9 +101,64 @@ public class TaskCompletionTracker {
      * @return the task status, or null if not found
      */
     public TaskStatus getTaskStatus(String taskId) {
+        long numericId = Task.parseNumericId(taskId);
+        if (numericId != 0) {
+            return getTaskStatus(numericId);
+        }
         return taskStatuses.get(taskId);
     }
 
+    /**
+     * Registers a task with a numeric ID for tracking, without building its string form.
+     *
+     * @param taskId the numeric task ID
+     */
+    public void registerTask(long taskId) {
+        synchronized (lock) {
+            if (shutdownInitiated.get()) {
+                logger.warn("Cannot register task {} - shutdown has been initiated", taskId);
+                return;
+            }
+
+            numericTaskStatuses.put(taskId, TaskStatus.RUNNING);
+            submittedTasks.incrementAndGet();
+            logger.debug("Registered task for tracking: {}", taskId);
+        }
+    }
+
+    /**
+     * Marks a task with a numeric ID as completed.
+     *
+     * @param taskId the numeric task ID
+     */
+    public void markTaskCompleted(long taskId) {
+        TaskStatus previousStatus = numericTaskStatuses.put(taskId, TaskStatus.COMPLETED);
+        completedTasks.incrementAndGet();
+        logger.debug("Marked task as completed: {}. Previous status: {}", taskId, previousStatus);
+    }
+
+    /**
+     * Marks a task with a numeric ID as failed.
+     *
+     * @param taskId the numeric task ID
+     * @param errorMessage the error message
+     */
+    public void markTaskFailed(long taskId, String errorMessage) {
+        numericTaskStatuses.put(taskId, TaskStatus.FAILED);
+        failedTasks.incrementAndGet();
+        logger.debug("Marked task as failed: {}. Error: {}", taskId, errorMessage);
+    }
+
+    /**
+     * Gets the status of a task with a numeric ID.
+     *
+     * @param taskId the numeric task ID
+     * @return the task status, or null if not found
+     */
+    public TaskStatus getTaskStatus(long taskId) {
+        return numericTaskStatuses.get(taskId);
+    }
+
     /**
      * Gets the number of submitted tasks.
      *
@@ -116,9 +192,13 @@ public class TaskCompletionTracker {
      * @return the number of running tasks
      */
     public int getRunningTasks() {
-        return (int) taskStatuses.values().stream()
+        long running = taskStatuses.values().stream()
+                .filter(status -> status == TaskStatus.RUNNING)
+                .count();
+        running += numericTaskStatuses.values().stream()
                 .filter(status -> status == TaskStatus.RUNNING)
                 .count();
+        return (int) running;
     }
 
     /**
@@ -166,6 +246,7 @@ public class TaskCompletionTracker {
     public void clear() {
         synchronized (lock) {
             taskStatuses.clear();
+            numericTaskStatuses.clear();
             submittedTasks.set(0);
             completedTasks.set(0);
             failedTasks.set(0);
@@ -0,0 +1,125 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.TaskPriority;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary codec for the descriptor of a pending task: its ID, submission time, priority, deadline and tenant.
+ *
+ * <p>Only what is needed to queue and order the task is written; results, exceptions and execution
+ * timestamps are never present on a pending task and are not encoded.</p>
+ */
+public class TaskDescriptorCodec {
+    private static final int NO_STRING = -1;
+    private static final int NUMERIC_ID = -2;
+    private static final byte NO_DEADLINE = 0;
+    private static final byte HAS_DEADLINE = 1;
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private TaskDescriptorCodec() {
+    }
+
+    /**
+     * Gets the most bytes {@link #encode(Task, ByteBuffer)} can write for a task.
+     *
+     * @param task the task to measure
+     * @return an upper bound on the encoded size in bytes
+     */
+    public static int encodedSize(Task task) {
+        byte[] id = task.hasNumericId() ? null : utf8(task.getId());
+        return encodedSize(id, utf8(task.getTenant())) + (task.hasNumericId() ? Long.BYTES : 0);
+    }
+
+    /**
+     * Writes a task descriptor at the buffer's position.
+     *
+     * @param task the task to encode
+     * @param buffer the buffer to write to
+     * @return the number of bytes written
+     */
+    public static int encode(Task task, ByteBuffer buffer) {
+        int start = buffer.position();
+        if (task.hasNumericId()) {
+            // Numeric IDs stay numeric, without building their string form
+            buffer.putInt(NUMERIC_ID);
+            buffer.putLong(task.getNumericId());
+        } else {
+            putString(buffer, utf8(task.getId()));
+        }
+        putInstant(buffer, task.getSubmissionTime());
+        buffer.put((byte) task.getPriority().ordinal());
+        Instant deadline = task.getDeadline();
+        if (deadline == null) {
+            buffer.put(NO_DEADLINE);
+        } else {
+            buffer.put(HAS_DEADLINE);
+            putInstant(buffer, deadline);
+        }
+        putString(buffer, utf8(task.getTenant()));
+        return buffer.position() - start;
+    }
+
+    /**
+     * Reads a task descriptor at the buffer's position.
+     *
+     * @param buffer the buffer to read from
+     * @return a pending task with the encoded ID, submission time, priority, deadline and tenant
+     */
+    public static Task decode(ByteBuffer buffer) {
+        int idLength = buffer.getInt();
+        Task task = idLength == NUMERIC_ID ? new Task(buffer.getLong()) : new Task(getString(buffer, idLength));
+        task.setSubmissionTime(getInstant(buffer));
+        task.setPriority(PRIORITIES[buffer.get()]);
+        if (buffer.get() == HAS_DEADLINE) {
+            task.setDeadline(getInstant(buffer));
+        }
+        task.setTenant(getString(buffer, buffer.getInt()));
+        return task;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int encodedSize(byte[] id, byte[] tenant) {
+        int size = Integer.BYTES + (id == null ? 0 : id.length);
+        size += Long.BYTES + Integer.BYTES;
+        size += 1;
+        size += 1 + Long.BYTES + Integer.BYTES;
+        size += Integer.BYTES + (tenant == null ? 0 : tenant.length);
+        return size;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NO_STRING);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        if (length == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant) {
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+}
@@ -6,9 +6,9 @@ import com.example.threadcontroller.util.Logger;
 import com.example.threadcontroller.util.MetricsCollector;
 import com.example.threadcontroller.util.TaskExecutionException;
 
-import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for executing tasks in the thread controller.
@@ -36,34 +36,30 @@ public class TaskExecutionService {
      */
     public CompletableFuture<Void> executeTask(Runnable task, Task taskModel) {
         logger.info("Executing Runnable task with ID: {}", taskModel.getId());
+        if (!taskModel.tryTransition(TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
         metricsCollector.recordTaskSubmission("Runnable");
 
-        taskModel.setStartTime(Instant.now());
-        taskModel.setStatus(TaskStatus.RUNNING);
-
-        long startTime = System.currentTimeMillis();
-
         return CompletableFuture.runAsync(() -> {
+            taskModel.setStartTimeNanos(System.nanoTime());
             try {
                 logger.debug("Running Runnable task with ID: {}", taskModel.getId());
                 task.run();
 
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.COMPLETED);
-
-                metricsCollector.recordTaskCompletion(executionTime);
-                logger.debug("Runnable task with ID: {} completed successfully in {}ms",
-                           taskModel.getId(), executionTime);
+                if (taskModel.tryComplete(null)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskCompletion(executionTime);
+                    logger.debug("Runnable task with ID: {} completed successfully in {}ms",
+                               taskModel.getId(), executionTime);
+                }
             } catch (Exception e) {
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.FAILED);
-                taskModel.setException(e);
-
-                metricsCollector.recordTaskFailure();
-                logger.error("Runnable task with ID: {} failed after {}ms with exception: {}",
-                           taskModel.getId(), executionTime, e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskFailure();
+                    logger.error("Runnable task with ID: {} failed after {}ms with exception: {}",
+                               taskModel.getId(), executionTime, e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
         });
@@ -79,36 +75,31 @@ public class TaskExecutionService {
      */
     public <T> CompletableFuture<T> executeTask(java.util.concurrent.Callable<T> task, Task taskModel) {
         logger.info("Executing Callable task with ID: {}", taskModel.getId());
+        if (!taskModel.tryTransition(TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
         metricsCollector.recordTaskSubmission("Callable");
 
-        taskModel.setStartTime(Instant.now());
-        taskModel.setStatus(TaskStatus.RUNNING);
-
-        long startTime = System.currentTimeMillis();
-
         return CompletableFuture.supplyAsync(() -> {
+            taskModel.setStartTimeNanos(System.nanoTime());
             try {
                 logger.debug("Running Callable task with ID: {}", taskModel.getId());
                 T result = task.call();
 
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.COMPLETED);
-                taskModel.setResult(result);
-
-                metricsCollector.recordTaskCompletion(executionTime);
-                logger.debug("Callable task with ID: {} completed successfully in {}ms",
-                           taskModel.getId(), executionTime);
+                if (taskModel.tryComplete(result)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskCompletion(executionTime);
+                    logger.debug("Callable task with ID: {} completed successfully in {}ms",
+                               taskModel.getId(), executionTime);
+                }
                 return result;
             } catch (Exception e) {
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.FAILED);
-                taskModel.setException(e);
-
-                metricsCollector.recordTaskFailure();
-                logger.error("Callable task with ID: {} failed after {}ms with exception: {}",
-                           taskModel.getId(), executionTime, e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskFailure();
+                    logger.error("Callable task with ID: {} failed after {}ms with exception: {}",
+                               taskModel.getId(), executionTime, e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
         });
@@ -124,34 +115,30 @@ public class TaskExecutionService {
      */
     public CompletableFuture<Void> executeTask(Runnable task, Task taskModel, ExecutorService executorService) {
         logger.info("Executing Runnable task with ID: {} using custom executor", taskModel.getId());
+        if (!taskModel.tryTransition(TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
         metricsCollector.recordTaskSubmission("Runnable");
 
-        taskModel.setStartTime(Instant.now());
-        taskModel.setStatus(TaskStatus.RUNNING);
-
-        long startTime = System.currentTimeMillis();
-
         return CompletableFuture.runAsync(() -> {
+            taskModel.setStartTimeNanos(System.nanoTime());
             try {
                 logger.debug("Running Runnable task with ID: {} using custom executor", taskModel.getId());
                 task.run();
 
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.COMPLETED);
-
-                metricsCollector.recordTaskCompletion(executionTime);
-                logger.debug("Runnable task with ID: {} completed successfully in {}ms using custom executor",
-                           taskModel.getId(), executionTime);
+                if (taskModel.tryComplete(null)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskCompletion(executionTime);
+                    logger.debug("Runnable task with ID: {} completed successfully in {}ms using custom executor",
+                               taskModel.getId(), executionTime);
+                }
             } catch (Exception e) {
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.FAILED);
-                taskModel.setException(e);
-
-                metricsCollector.recordTaskFailure();
-                logger.error("Runnable task with ID: {} failed after {}ms with exception: {} using custom executor",
-                           taskModel.getId(), executionTime, e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskFailure();
+                    logger.error("Runnable task with ID: {} failed after {}ms with exception: {} using custom executor",
+                               taskModel.getId(), executionTime, e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
         }, executorService);
@@ -168,38 +155,46 @@ public class TaskExecutionService {
      */
     public <T> CompletableFuture<T> executeTask(java.util.concurrent.Callable<T> task, Task taskModel, ExecutorService executorService) {
         logger.info("Executing Callable task with ID: {} using custom executor", taskModel.getId());
+        if (!taskModel.tryTransition(TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
         metricsCollector.recordTaskSubmission("Callable");
 
-        taskModel.setStartTime(Instant.now());
-        taskModel.setStatus(TaskStatus.RUNNING);
-
-        long startTime = System.currentTimeMillis();
-
         return CompletableFuture.supplyAsync(() -> {
+            taskModel.setStartTimeNanos(System.nanoTime());
             try {
                 logger.debug("Running Callable task with ID: {} using custom executor", taskModel.getId());
                 T result = task.call();
 
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.COMPLETED);
-                taskModel.setResult(result);
-
-                metricsCollector.recordTaskCompletion(executionTime);
-                logger.debug("Callable task with ID: {} completed successfully in {}ms using custom executor",
-                           taskModel.getId(), executionTime);
+                if (taskModel.tryComplete(result)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskCompletion(executionTime);
+                    logger.debug("Callable task with ID: {} completed successfully in {}ms using custom executor",
+                               taskModel.getId(), executionTime);
+                }
                 return result;
             } catch (Exception e) {
-                long executionTime = System.currentTimeMillis() - startTime;
-                taskModel.setCompletionTime(Instant.now());
-                taskModel.setStatus(TaskStatus.FAILED);
-                taskModel.setException(e);
-
-                metricsCollector.recordTaskFailure();
-                logger.error("Callable task with ID: {} failed after {}ms with exception: {} using custom executor",
-                           taskModel.getId(), executionTime, e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    long executionTime = TimeUnit.NANOSECONDS.toMillis(taskModel.getExecutionNanos());
+                    metricsCollector.recordTaskFailure();
+                    logger.error("Callable task with ID: {} failed after {}ms with exception: {} using custom executor",
+                               taskModel.getId(), executionTime, e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
         }, executorService);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fails the execution of a task that has already been started or finished.
+     *
+     * @param taskModel the task model
+     * @param <T> the result type
+     * @return a future failed with a {@link TaskExecutionException}
+     */
+    private static <T> CompletableFuture<T> notStartable(Task taskModel) {
+        logger.warn("Task with ID: {} cannot start from status {}", taskModel.getId(), taskModel.getStatus());
+        return CompletableFuture.failedFuture(new TaskExecutionException(
+            "Task " + taskModel.getId() + " cannot start from status " + taskModel.getStatus()));
+    }
+}
@@ -0,0 +1,524 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.TaskIdGenerator;
+import com.example.threadcontroller.util.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of task submissions and completions.
+ *
+ * <p>Records are appended to an in-memory buffer and written by a single writer thread. The writer
+ * takes everything appended since its last pass, writes it with one call and forces it to disk with
+ * one fsync, so a burst of submissions shares a single commit. Producers never wait for the disk;
+ * a crash loses at most the records of the last commit interval. Callers that need a record to be
+ * durable before they continue can call {@link #sync()}.</p>
+ *
+ * <p>The journal is split into segment files. When the active segment grows past its size limit the
+ * writer starts a new one, and once enough sealed segments pile up it rewrites them into a single
+ * segment holding only the tasks that have not completed. On startup every segment is replayed and
+ * the tasks without a completion record are available from {@link #getRecoveredTasks()}. The
+ * {@link TaskIdGenerator} is moved past the highest recovered numeric ID, so tasks created by this
+ * process never reuse the ID of a task it recovered.</p>
+ */
+public class TaskJournal implements AutoCloseable {
+    private static final Logger logger = new Logger(TaskJournal.class);
+
+    /**
+     * Default size after which the active segment is sealed.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Default time a record may wait in memory before it is committed.
+     */
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 5;
+
+    private static final byte SUBMIT = 1;
+    private static final byte COMPLETE = 2;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int COMPACT_AFTER_SEGMENTS = 4;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long commitIntervalNanos;
+    private final List<Task> recoveredTasks;
+    private final List<Segment> sealedSegments = new ArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition recordsAppended = appendLock.newCondition();
+    private final Object commitMonitor = new Object();
+    private final Thread writer;
+    private ByteBuffer appendBuffer = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+    private long appendedRecords;
+    private volatile long committedRecords;
+    private volatile long commitCount;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private Segment activeSegment;
+    private long nextSegmentId;
+
+    /**
+     * Constructor with the default segment size and commit interval.
+     *
+     * @param directory the directory that holds the journal segments
+     */
+    public TaskJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_COMMIT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructor. Replays any segments already in the directory before accepting new records.
+     *
+     * @param directory the directory that holds the journal segments
+     * @param segmentBytes the size after which the active segment is sealed
+     * @param commitIntervalMillis the longest time a record waits in memory before it is committed
+     * @throws UncheckedIOException if the journal cannot be read or created
+     */
+    public TaskJournal(Path directory, long segmentBytes, long commitIntervalMillis) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Journal directory cannot be null");
+        }
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        if (commitIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Commit interval must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        try {
+            Files.createDirectories(directory);
+            deleteLeftoverCompactions();
+            List<Segment> existing = listSegments();
+            this.recoveredTasks = Collections.unmodifiableList(new ArrayList<>(replay(existing).values()));
+            long highestNumericId = 0;
+            for (Task task : recoveredTasks) {
+                highestNumericId = Math.max(highestNumericId, task.getNumericId());
+            }
+            if (highestNumericId != 0) {
+                TaskIdGenerator.advancePast(highestNumericId);
+            }
+            sealedSegments.addAll(existing);
+            nextSegmentId = existing.isEmpty() ? 0 : existing.get(existing.size() - 1).id + 1;
+            activeSegment = openSegment(nextSegmentId++);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open task journal in " + directory, e);
+        }
+        this.writer = new Thread(this::runWriter, "task-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        logger.info("Opened TaskJournal in {} with {} segments, recovered {} incomplete tasks",
+                   directory, sealedSegments.size(), recoveredTasks.size());
+    }
+
+    /**
+     * Records that a task has been submitted.
+     *
+     * @param task the submitted task
+     */
+    public void recordSubmit(Task task) {
+        if (task.getId() == null) {
+            throw new IllegalArgumentException("Cannot journal a task without an ID");
+        }
+        appendLock.lock();
+        try {
+            checkOpen();
+            int start = reserve(RECORD_HEADER_BYTES + 1 + TaskDescriptorCodec.encodedSize(task));
+            appendBuffer.put(SUBMIT);
+            TaskDescriptorCodec.encode(task, appendBuffer);
+            finishRecord(start);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Records that a task has completed and must not be replayed.
+     *
+     * @param taskId the ID of the completed task
+     */
+    public void recordComplete(String taskId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Cannot journal a task without an ID");
+        }
+        byte[] id = taskId.getBytes(StandardCharsets.UTF_8);
+        appendLock.lock();
+        try {
+            checkOpen();
+            int start = reserve(RECORD_HEADER_BYTES + 1 + id.length);
+            appendBuffer.put(COMPLETE);
+            appendBuffer.put(id);
+            finishRecord(start);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every record appended before this call is on disk.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IllegalStateException if the journal failed to write
+     */
+    public void sync() throws InterruptedException {
+        long target;
+        appendLock.lock();
+        try {
+            target = appendedRecords;
+            recordsAppended.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        synchronized (commitMonitor) {
+            while (committedRecords < target) {
+                if (failure != null) {
+                    throw new IllegalStateException("Task journal failed", failure);
+                }
+                commitMonitor.wait();
+            }
+        }
+    }
+
+    /**
+     * Gets the tasks that were submitted but never completed before the journal was last closed.
+     *
+     * @return the recovered tasks in submission order
+     */
+    public List<Task> getRecoveredTasks() {
+        return recoveredTasks;
+    }
+
+    /**
+     * Gets the number of fsyncs the writer has issued.
+     *
+     * @return the commit count
+     */
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * Gets the number of records that are on disk.
+     *
+     * @return the committed record count
+     */
+    public long getCommittedRecords() {
+        return committedRecords;
+    }
+
+    /**
+     * Gets the number of segment files, including the active one.
+     *
+     * @return the segment count
+     */
+    public synchronized int getSegmentCount() {
+        return sealedSegments.size() + 1;
+    }
+
+    /**
+     * Commits every pending record and closes the journal. Segment files are kept for the next startup.
+     */
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            recordsAppended.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                activeSegment.channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close journal segment {}: {}", activeSegment.path, e.getMessage());
+            }
+        }
+        logger.info("Closed TaskJournal in {}", directory);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Cannot append: task journal has been closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Task journal failed", failure);
+        }
+    }
+
+    /**
+     * Makes room for a record and skips its header. Must hold the append lock.
+     *
+     * @param maxBytes the most bytes the record can take
+     * @return the position of the record header
+     */
+    private int reserve(int maxBytes) {
+        if (appendBuffer.remaining() < maxBytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(appendBuffer.capacity() * 2, appendBuffer.position() + maxBytes));
+            appendBuffer.flip();
+            larger.put(appendBuffer);
+            appendBuffer = larger;
+        }
+        int start = appendBuffer.position();
+        appendBuffer.position(start + RECORD_HEADER_BYTES);
+        return start;
+    }
+
+    /**
+     * Fills in the length and checksum of the record that starts at the given position. Must hold the
+     * append lock.
+     *
+     * @param start the position of the record header
+     */
+    private void finishRecord(int start) {
+        int bodyStart = start + RECORD_HEADER_BYTES;
+        int bodyLength = appendBuffer.position() - bodyStart;
+        CRC32C crc = new CRC32C();
+        crc.update(appendBuffer.array(), bodyStart, bodyLength);
+        appendBuffer.putInt(start, bodyLength);
+        appendBuffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        appendedRecords++;
+    }
+
+    /**
+     * Writer loop: every commit interval, or sooner when someone is waiting in {@link #sync()}, swaps the
+     * append buffer out, writes it and forces it to disk with a single fsync.
+     */
+    private void runWriter() {
+        while (true) {
+            long target;
+            boolean stopping;
+            appendLock.lock();
+            try {
+                if (appendBuffer.position() == 0 && !closed) {
+                    try {
+                        recordsAppended.awaitNanos(commitIntervalNanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        closed = true;
+                    }
+                }
+                ByteBuffer swap = writeBuffer;
+                writeBuffer = appendBuffer;
+                appendBuffer = swap;
+                appendBuffer.clear();
+                target = appendedRecords;
+                stopping = closed;
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                commit(target);
+            } catch (IOException e) {
+                logger.error("Task journal write failed: {}", e.getMessage(), e);
+                failure = e;
+                synchronized (commitMonitor) {
+                    commitMonitor.notifyAll();
+                }
+                return;
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the swapped-out buffer, forces it to disk and rotates the segment if it is full.
+     *
+     * @param target the number of records appended up to the end of the buffer
+     * @throws IOException if the write or fsync fails
+     */
+    private synchronized void commit(long target) throws IOException {
+        writeBuffer.flip();
+        if (writeBuffer.hasRemaining()) {
+            while (writeBuffer.hasRemaining()) {
+                activeSegment.channel.write(writeBuffer);
+            }
+            activeSegment.channel.force(false);
+            commitCount++;
+        }
+        writeBuffer.clear();
+        synchronized (commitMonitor) {
+            committedRecords = target;
+            commitMonitor.notifyAll();
+        }
+
+        if (activeSegment.channel.size() >= segmentBytes) {
+            activeSegment.channel.close();
+            sealedSegments.add(activeSegment);
+            activeSegment = openSegment(nextSegmentId++);
+            if (sealedSegments.size() >= COMPACT_AFTER_SEGMENTS) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rewrites every sealed segment into one that holds only the submissions without a completion.
+     * The compacted file takes the name of the newest sealed segment, so replay order is unchanged.
+     *
+     * @throws IOException if the compacted segment cannot be written
+     */
+    private void compact() throws IOException {
+        Map<String, Task> live = replay(sealedSegments);
+        Segment newest = sealedSegments.get(sealedSegments.size() - 1);
+        Path compacted = directory.resolve(SEGMENT_PREFIX + String.format("%010d", newest.id) + COMPACT_SUFFIX);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Task task : live.values()) {
+                int maxBytes = RECORD_HEADER_BYTES + 1 + TaskDescriptorCodec.encodedSize(task);
+                if (buffer.remaining() < maxBytes) {
+                    writeFully(channel, buffer);
+                }
+                int start = buffer.position();
+                buffer.position(start + RECORD_HEADER_BYTES);
+                buffer.put(SUBMIT);
+                TaskDescriptorCodec.encode(task, buffer);
+                int bodyLength = buffer.position() - start - RECORD_HEADER_BYTES;
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.array(), start + RECORD_HEADER_BYTES, bodyLength);
+                buffer.putInt(start, bodyLength);
+                buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+            }
+            writeFully(channel, buffer);
+            channel.force(false);
+        }
+
+        // The atomic rename is the commit point; older segments only hold records it already covers
+        Files.move(compacted, newest.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (int i = 0; i < sealedSegments.size() - 1; i++) {
+            Files.deleteIfExists(sealedSegments.get(i).path);
+        }
+        sealedSegments.clear();
+        sealedSegments.add(newest);
+        logger.info("Compacted task journal into {} with {} live tasks", newest.path, live.size());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Replays segments in order and returns the submitted tasks that have no completion record.
+     * A record with a bad length or checksum ends its segment, since it can only be a torn write.
+     *
+     * @param segments the segments to replay, oldest first
+     * @return the live tasks keyed by ID, in submission order
+     * @throws IOException if a segment cannot be read
+     */
+    private static Map<String, Task> replay(List<Segment> segments) throws IOException {
+        Map<String, Task> live = new LinkedHashMap<>();
+        for (Segment segment : segments) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.path));
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                int bodyLength = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (bodyLength <= 0 || bodyLength > buffer.remaining()) {
+                    logger.warn("Truncated record in journal segment {}; ignoring the rest", segment.path);
+                    break;
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.array(), buffer.position(), bodyLength);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Corrupt record in journal segment {}; ignoring the rest", segment.path);
+                    break;
+                }
+                int end = buffer.position() + bodyLength;
+                byte type = buffer.get();
+                if (type == SUBMIT) {
+                    Task task = TaskDescriptorCodec.decode(buffer);
+                    live.putIfAbsent(task.getId(), task);
+                } else if (type == COMPLETE) {
+                    byte[] id = new byte[end - buffer.position()];
+                    buffer.get(id);
+                    live.remove(new String(id, StandardCharsets.UTF_8));
+                }
+                buffer.position(end);
+            }
+        }
+        return live;
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String id = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                segments.add(new Segment(Long.parseLong(id), path, null));
+            }
+        }
+        segments.sort((a, b) -> Long.compare(a.id, b.id));
+        return segments;
+    }
+
+    private void deleteLeftoverCompactions() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + COMPACT_SUFFIX)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%010d", id) + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        logger.debug("Opened journal segment {}", path);
+        return new Segment(id, path, channel);
+    }
+
+    /**
+     * A journal segment file. Only the active segment has an open channel.
+     */
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+
+        Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
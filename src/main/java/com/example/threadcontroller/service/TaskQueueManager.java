@@ -1,31 +1,59 @@
 package com.example.threadcontroller.service;
 
+import com.example.threadcontroller.model.QueueDiscipline;
 import com.example.threadcontroller.model.Task;
 import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+import com.example.threadcontroller.util.TaskExecutionException;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manager for task queue operations.
  */
 public class TaskQueueManager {
     private static final Logger logger = new Logger(TaskQueueManager.class);
+    private static final long DEFAULT_AGING_MILLIS = 500;
+    private static final long DEFAULT_LIFO_WAIT_MILLIS = 100;
 
     private final BlockingQueue<Task> taskQueue;
     private final AtomicInteger queuedTasks;
     private final AtomicInteger processedTasks;
+    private final AtomicLong totalWaitTimeMillis;
+    private final MetricsCollector metricsCollector;
+    private final TaskSpillStore spillStore;
+    private final TaskJournal journal;
+    private final Object spillLock = new Object();
+    private volatile boolean spilling;
+    private Task pendingRefill;
+    private volatile CoDelController coDel;
+    private volatile RejectionPolicy<Task> rejectionPolicy = RejectionPolicies.abort();
+    private final CapacityWaiters capacityWaiters = new CapacityWaiters();
+    private final AdmissionTarget<Task> admissionTarget = new QueueAdmissionTarget();
     private volatile boolean isShutdown;
 
     /**
      * Default constructor with unbounded queue.
      */
     public TaskQueueManager() {
-        this.taskQueue = new LinkedBlockingQueue<>();
+        this.taskQueue = new FifoTaskQueue();
         this.queuedTasks = new AtomicInteger(0);
         this.processedTasks = new AtomicInteger(0);
+        this.totalWaitTimeMillis = new AtomicLong(0);
+        this.metricsCollector = new MetricsCollector();
+        this.spillStore = null;
+        this.journal = null;
         this.isShutdown = false;
         logger.info("Created TaskQueueManager with unbounded queue");
     }
@@ -36,13 +64,166 @@ public class TaskQueueManager {
      * @param capacity the maximum capacity of the queue
      */
     public TaskQueueManager(int capacity) {
-        this.taskQueue = new LinkedBlockingQueue<>(capacity);
+        this.taskQueue = new FifoTaskQueue(capacity);
         this.queuedTasks = new AtomicInteger(0);
         this.processedTasks = new AtomicInteger(0);
+        this.totalWaitTimeMillis = new AtomicLong(0);
+        this.metricsCollector = new MetricsCollector();
+        this.spillStore = null;
+        this.journal = null;
         this.isShutdown = false;
         logger.info("Created TaskQueueManager with bounded queue of capacity: {}", capacity);
     }
 
+    /**
+     * Constructor with bounded queue capacity and queue discipline.
+     *
+     * @param capacity the maximum capacity of the queue
+     * @param discipline the order in which tasks are handed out
+     */
+    public TaskQueueManager(int capacity, QueueDiscipline discipline) {
+        this(capacity, discipline, new MetricsCollector());
+    }
+
+    /**
+     * Constructor with bounded queue capacity, queue discipline and metrics collector.
+     *
+     * @param capacity the maximum capacity of the queue
+     * @param discipline the order in which tasks are handed out
+     * @param metricsCollector the metrics collector that records shed tasks
+     */
+    public TaskQueueManager(int capacity, QueueDiscipline discipline, MetricsCollector metricsCollector) {
+        this(createQueue(capacity, discipline, metricsCollector), metricsCollector);
+    }
+
+    /**
+     * Constructor with a custom queue backend.
+     *
+     * @param taskQueue the queue that holds the tasks
+     */
+    public TaskQueueManager(BlockingQueue<Task> taskQueue) {
+        this(taskQueue, new MetricsCollector());
+    }
+
+    /**
+     * Constructor with a custom queue backend and metrics collector.
+     *
+     * @param taskQueue the queue that holds the tasks
+     * @param metricsCollector the metrics collector that records shed tasks
+     */
+    public TaskQueueManager(BlockingQueue<Task> taskQueue, MetricsCollector metricsCollector) {
+        this(taskQueue, metricsCollector, (TaskSpillStore) null);
+    }
+
+    /**
+     * Constructor with a custom queue backend that spills overflow to segment files in a directory.
+     *
+     * @param taskQueue the bounded queue that holds the in-memory tasks
+     * @param metricsCollector the metrics collector that records shed and spilled tasks
+     * @param spillDirectory the directory for the overflow segment files
+     */
+    public TaskQueueManager(BlockingQueue<Task> taskQueue, MetricsCollector metricsCollector, Path spillDirectory) {
+        this(taskQueue, metricsCollector, new TaskSpillStore(spillDirectory, metricsCollector));
+    }
+
+    /**
+     * Constructor with a custom queue backend and an optional overflow store.
+     *
+     * <p>With a spill store, {@link #addTask(Task)} never fails because the queue is full: tasks that do not
+     * fit are appended to the store and moved back into the queue in FIFO order as consumers free capacity.
+     * Spilled tasks come back as new {@link Task} instances carrying the same ID, submission time, priority
+     * and deadline.</p>
+     *
+     * @param taskQueue the bounded queue that holds the in-memory tasks
+     * @param metricsCollector the metrics collector that records shed and spilled tasks
+     * @param spillStore the overflow store, or null to reject tasks when the queue is full
+     */
+    public TaskQueueManager(BlockingQueue<Task> taskQueue, MetricsCollector metricsCollector, TaskSpillStore spillStore) {
+        this(taskQueue, metricsCollector, spillStore, null);
+    }
+
+    /**
+     * Constructor with a custom queue backend, an optional overflow store and an optional journal.
+     *
+     * <p>With a journal, every added task is recorded as submitted before it becomes visible to consumers,
+     * and tasks that were submitted but never marked completed with {@link #markCompleted(Task)} in an earlier
+     * run are queued again first. Tasks still queued at {@link #shutdown()} stay in the journal and are
+     * recovered on the next start.</p>
+     *
+     * @param taskQueue the queue that holds the in-memory tasks
+     * @param metricsCollector the metrics collector that records shed and spilled tasks
+     * @param spillStore the overflow store, or null to reject tasks when the queue is full
+     * @param journal the write-ahead journal, or null to keep tasks in memory only
+     */
+    public TaskQueueManager(BlockingQueue<Task> taskQueue, MetricsCollector metricsCollector,
+                            TaskSpillStore spillStore, TaskJournal journal) {
+        this.taskQueue = taskQueue;
+        this.queuedTasks = new AtomicInteger(0);
+        this.processedTasks = new AtomicInteger(0);
+        this.totalWaitTimeMillis = new AtomicLong(0);
+        this.metricsCollector = metricsCollector;
+        this.spillStore = spillStore;
+        this.journal = journal;
+        this.isShutdown = false;
+        if (journal != null) {
+            requeueRecoveredTasks();
+        }
+        logger.info("Created TaskQueueManager with {} backend, spilling: {}, journal: {}",
+                   taskQueue.getClass().getSimpleName(), spillStore != null, journal != null);
+    }
+
+    /**
+     * Queues the tasks the journal recovered from an earlier run. They are already journaled as submitted,
+     * so they are not recorded again.
+     */
+    private void requeueRecoveredTasks() {
+        List<Task> recovered = journal.getRecoveredTasks();
+        int requeued = 0;
+        for (Task task : recovered) {
+            queuedTasks.incrementAndGet();
+            boolean added = spillStore != null ? offerOrSpill(task) : taskQueue.offer(task);
+            if (!added) {
+                queuedTasks.decrementAndGet();
+                break;
+            }
+            requeued++;
+        }
+        if (requeued < recovered.size()) {
+            logger.warn("Queue is full: {} recovered tasks stay in the journal until the next start",
+                       recovered.size() - requeued);
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Requeued {} tasks recovered from the journal", requeued);
+        }
+    }
+
+    /**
+     * Creates the queue backend for a discipline.
+     *
+     * @param capacity the maximum capacity of the queue
+     * @param discipline the order in which tasks are handed out
+     * @param metricsCollector the metrics collector for backends that report their behaviour
+     * @return the queue backend
+     */
+    private static BlockingQueue<Task> createQueue(int capacity, QueueDiscipline discipline,
+                                                   MetricsCollector metricsCollector) {
+        switch (discipline) {
+            case PRIORITY:
+                return new PriorityTaskQueue(capacity, DEFAULT_AGING_MILLIS);
+            case DEADLINE:
+                return new DeadlineTaskQueue(capacity);
+            case FAIR:
+                return new FairTaskQueue(capacity);
+            case ADAPTIVE_LIFO:
+                // Overloaded at half capacity, or once the oldest task has waited past a typical client timeout
+                return new AdaptiveLifoTaskQueue(capacity, Math.max(1, capacity / 2),
+                    DEFAULT_LIFO_WAIT_MILLIS, TimeUnit.MILLISECONDS, metricsCollector);
+            case FIFO:
+            default:
+                return new FifoTaskQueue(capacity);
+        }
+    }
+
     /**
      * Adds a task to the queue.
      *
@@ -55,16 +236,206 @@ public class TaskQueueManager {
             throw new IllegalStateException("Cannot add task: TaskQueueManager has been shut down");
         }
 
-        boolean added = taskQueue.offer(task);
+        beforeEnqueue(task);
+        boolean added = spillStore != null ? offerOrSpill(task) : taskQueue.offer(task);
         if (added) {
-            queuedTasks.incrementAndGet();
             logger.debug("Added task with ID: {} to queue. Queue size: {}", task.getId(), taskQueue.size());
         } else {
+            undoEnqueue(task);
             logger.warn("Failed to add task with ID: {} to queue. Queue may be full.", task.getId());
         }
         return added;
     }
 
+    /**
+     * Adds a task to the queue, applying the rejection policy if the queue is full.
+     *
+     * @param task the task to add
+     * @return a stage that completes once the task is queued, or completes exceptionally if the
+     *         policy gives up on it
+     * @throws RejectedExecutionException if the policy rejects the task immediately
+     * @throws IllegalStateException if the manager has been shut down
+     */
+    public CompletionStage<Void> submit(Task task) {
+        if (admissionTarget.tryAdmit(task)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        logger.debug("Queue full, applying rejection policy to task with ID: {}", task.getId());
+        return rejectionPolicy.rejected(task, admissionTarget);
+    }
+
+    /**
+     * Journals, stamps and counts a task before it is published, so a consumer can never complete a
+     * task that is not recorded.
+     *
+     * @param task the task about to be queued
+     */
+    private void beforeEnqueue(Task task) {
+        if (journal != null) {
+            journal.recordSubmit(task);
+        }
+        if (coDel != null) {
+            task.setEnqueueTimeNanos(System.nanoTime());
+        }
+        queuedTasks.incrementAndGet();
+    }
+
+    /**
+     * Reverts {@link #beforeEnqueue(Task)} for a task that could not be queued.
+     *
+     * @param task the task that was not queued
+     */
+    private void undoEnqueue(Task task) {
+        queuedTasks.decrementAndGet();
+        if (journal != null) {
+            journal.recordComplete(task.getId());
+        }
+    }
+
+    /**
+     * Offers a task to the in-memory queue, or appends it to the spill store if the queue is full or
+     * earlier tasks are still spilled.
+     *
+     * @param task the task to add
+     * @return true if the task was queued or spilled, false if spilling failed
+     */
+    private boolean offerOrSpill(Task task) {
+        if (!spilling && taskQueue.offer(task)) {
+            return true;
+        }
+        synchronized (spillLock) {
+            // Once anything is spilled, later tasks must queue behind it to keep FIFO order
+            if (!spilling && taskQueue.offer(task)) {
+                return true;
+            }
+            try {
+                spillStore.append(task);
+            } catch (RuntimeException e) {
+                logger.error("Failed to spill task with ID: {}: {}", task.getId(), e.getMessage());
+                return false;
+            }
+            spilling = true;
+            return true;
+        }
+    }
+
+    /**
+     * Moves spilled tasks back into the in-memory queue while it has room.
+     */
+    private void refillFromSpill() {
+        synchronized (spillLock) {
+            while (spilling) {
+                Task task = pendingRefill != null ? pendingRefill : spillStore.poll();
+                pendingRefill = null;
+                if (task == null) {
+                    spilling = false;
+                    return;
+                }
+                if (!taskQueue.offer(task)) {
+                    // Keep the task at the front of the backlog until capacity frees again
+                    pendingRefill = task;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of tasks to the queue. Queues that implement {@link BatchTaskQueue}, which include
+     * the queues of every {@link QueueDiscipline}, publish the batch in one step. A custom queue
+     * passed to the constructor without that interface is offered the tasks one at a time. The
+     * counters are updated once per batch either way.
+     *
+     * @param tasks the tasks to add
+     * @return the number of tasks added, counted from the start of the batch
+     * @throws IllegalStateException if the manager has been shut down
+     */
+    public int addAll(Collection<Task> tasks) {
+        if (isShutdown) {
+            throw new IllegalStateException("Cannot add tasks: TaskQueueManager has been shut down");
+        }
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        // Journal and count before publishing so a consumer can never complete a task that is not recorded
+        if (journal != null) {
+            for (Task task : tasks) {
+                journal.recordSubmit(task);
+            }
+        }
+        if (coDel != null) {
+            long now = System.nanoTime();
+            for (Task task : tasks) {
+                task.setEnqueueTimeNanos(now);
+            }
+        }
+        queuedTasks.addAndGet(tasks.size());
+        int added;
+        if (spilling) {
+            added = 0;
+        } else if (taskQueue instanceof BatchTaskQueue) {
+            List<Task> batch = tasks instanceof List ? (List<Task>) tasks : new ArrayList<>(tasks);
+            added = ((BatchTaskQueue) taskQueue).offerBatch(batch);
+        } else {
+            added = 0;
+            for (Task task : tasks) {
+                if (!taskQueue.offer(task)) {
+                    break;
+                }
+                added++;
+            }
+        }
+        if (added < tasks.size() && spillStore != null) {
+            added += spillRemainder(tasks, added);
+        }
+        if (added < tasks.size()) {
+            queuedTasks.addAndGet(added - tasks.size());
+            if (journal != null) {
+                int index = 0;
+                for (Task task : tasks) {
+                    if (index++ >= added) {
+                        journal.recordComplete(task.getId());
+                    }
+                }
+            }
+            logger.warn("Added {} of {} tasks to queue. Queue may be full.", added, tasks.size());
+        } else {
+            logger.debug("Added batch of {} tasks to queue. Queue size: {}", added, taskQueue.size());
+        }
+        return added;
+    }
+
+    /**
+     * Appends the part of a batch that did not fit in memory to the spill store.
+     *
+     * @param tasks the batch
+     * @param skip the number of tasks at the start of the batch that were already queued
+     * @return the number of tasks spilled
+     */
+    private int spillRemainder(Collection<Task> tasks, int skip) {
+        int spilled = 0;
+        synchronized (spillLock) {
+            int index = 0;
+            for (Task task : tasks) {
+                if (index++ < skip) {
+                    continue;
+                }
+                try {
+                    spillStore.append(task);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to spill task with ID: {}: {}", task.getId(), e.getMessage());
+                    break;
+                }
+                spilled++;
+            }
+            if (spilled > 0) {
+                spilling = true;
+            }
+        }
+        return spilled;
+    }
+
     /**
      * Takes a task from the queue, blocking until one is available.
      *
@@ -77,11 +448,20 @@ public class TaskQueueManager {
             throw new IllegalStateException("Cannot take task: TaskQueueManager has been shut down");
         }
 
-        Task task = taskQueue.take();
-        processedTasks.incrementAndGet();
-        queuedTasks.decrementAndGet();
-        logger.debug("Took task with ID: {} from queue. Remaining queue size: {}", task.getId(), taskQueue.size());
-        return task;
+        while (true) {
+            Task task = taskQueue.take();
+            capacityWaiters.signalAll();
+            if (spilling) {
+                refillFromSpill();
+            }
+            if (shedOnDequeue(task)) {
+                queuedTasks.decrementAndGet();
+                continue;
+            }
+            recordDequeue(task);
+            logger.debug("Took task with ID: {} from queue. Remaining queue size: {}", task.getId(), taskQueue.size());
+            return task;
+        }
     }
 
     /**
@@ -98,13 +478,169 @@ public class TaskQueueManager {
             throw new IllegalStateException("Cannot poll task: TaskQueueManager has been shut down");
         }
 
-        Task task = taskQueue.poll(timeout, unit);
-        if (task != null) {
-            processedTasks.incrementAndGet();
-            queuedTasks.decrementAndGet();
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            Task task = taskQueue.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (task == null) {
+                return null;
+            }
+            capacityWaiters.signalAll();
+            if (spilling) {
+                refillFromSpill();
+            }
+            if (shedOnDequeue(task)) {
+                queuedTasks.decrementAndGet();
+                continue;
+            }
+            recordDequeue(task);
             logger.debug("Polled task with ID: {} from queue. Remaining queue size: {}", task.getId(), taskQueue.size());
+            return task;
+        }
+    }
+
+    /**
+     * Removes up to {@code maxBatch} tasks into the buffer, waiting up to the timeout for the first one.
+     * The rest of the batch is taken without waiting, and the counters are updated once per batch.
+     *
+     * @param buffer the collection to add the tasks to
+     * @param maxBatch the maximum number of tasks to remove
+     * @param timeout the maximum time to wait for the first task
+     * @param unit the time unit of the timeout
+     * @return the number of tasks added to the buffer
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws IllegalStateException if the manager has been shut down
+     */
+    public int drainTo(Collection<? super Task> buffer, int maxBatch, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (isShutdown) {
+            throw new IllegalStateException("Cannot drain tasks: TaskQueueManager has been shut down");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        List<Task> batch = new ArrayList<>(Math.min(maxBatch, 1024));
+        while (true) {
+            if (taskQueue.drainTo(batch, maxBatch) == 0) {
+                Task first = taskQueue.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    return 0;
+                }
+                batch.add(first);
+                if (maxBatch > 1) {
+                    taskQueue.drainTo(batch, maxBatch - 1);
+                }
+            }
+            capacityWaiters.signalAll();
+            if (spilling) {
+                refillFromSpill();
+            }
+
+            long now = System.nanoTime();
+            long waitMillis = 0;
+            int accepted = 0;
+            for (Task task : batch) {
+                if (shedOnDequeue(task)) {
+                    continue;
+                }
+                buffer.add(task);
+                long taskWaitMillis = TimeUnit.NANOSECONDS.toMillis(now - task.getSubmissionTimeNanos());
+                if (task.getTenant() != null) {
+                    metricsCollector.recordTenantDequeue(task.getTenant(), taskWaitMillis);
+                }
+                waitMillis += taskWaitMillis;
+                accepted++;
+            }
+            queuedTasks.addAndGet(-batch.size());
+            if (accepted > 0) {
+                processedTasks.addAndGet(accepted);
+                totalWaitTimeMillis.addAndGet(waitMillis);
+                logger.debug("Drained batch of {} tasks from queue. Remaining queue size: {}", accepted, taskQueue.size());
+                return accepted;
+            }
+            // Every task in the batch was shed; keep waiting for live work
+            batch.clear();
+        }
+    }
+
+    /**
+     * Sheds a dequeued task if its deadline has passed or the CoDel controller decides to drop it.
+     * Does not update the queued count.
+     *
+     * @param task the dequeued task
+     * @return true if the task was shed, false if it should run
+     */
+    private boolean shedOnDequeue(Task task) {
+        if (isExpired(task)) {
+            shedExpired(task);
+            return true;
+        }
+        CoDelController controller = coDel;
+        if (controller != null && task.getEnqueueTimeNanos() != 0) {
+            long now = System.nanoTime();
+            long sojournNanos = now - task.getEnqueueTimeNanos();
+            if (controller.shouldDrop(sojournNanos, now, taskQueue.isEmpty())) {
+                shed(task, "codel", new TaskExecutionException(String.format(
+                    "Dropped by CoDel after queueing for %d ms", TimeUnit.NANOSECONDS.toMillis(sojournNanos))));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a dequeued task's deadline has already passed.
+     *
+     * @param task the dequeued task
+     * @return true if the task should be shed instead of run
+     */
+    private boolean isExpired(Task task) {
+        return task.getDeadline() != null && task.isExpired(Instant.now());
+    }
+
+    /**
+     * Sheds a task whose deadline passed while it was queued.
+     *
+     * @param task the expired task
+     */
+    private void shedExpired(Task task) {
+        shed(task, "deadline exceeded",
+             new TaskExecutionException("Task deadline " + task.getDeadline() + " passed before it could run"));
+    }
+
+    /**
+     * Fails a task that will never run and records it as shed.
+     *
+     * @param task the task being shed
+     * @param reason the reason the task was shed
+     * @param exception the exception describing the failure
+     */
+    private void shed(Task task, String reason, Exception exception) {
+        if (!task.tryFail(exception)) {
+            // Another thread finished the task first and accounted for it
+            return;
+        }
+        if (journal != null) {
+            journal.recordComplete(task.getId());
+        }
+        metricsCollector.recordTaskShed(reason);
+        logger.debug("Shed task with ID: {}: {}", task.getId(), reason);
+    }
+
+    /**
+     * Updates counters for a task leaving the queue.
+     *
+     * @param task the dequeued task
+     */
+    private void recordDequeue(Task task) {
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.getSubmissionTimeNanos());
+        processedTasks.incrementAndGet();
+        queuedTasks.decrementAndGet();
+        totalWaitTimeMillis.addAndGet(waitMillis);
+        if (task.getTenant() != null) {
+            metricsCollector.recordTenantDequeue(task.getTenant(), waitMillis);
         }
-        return task;
     }
 
     /**
@@ -134,6 +670,119 @@ public class TaskQueueManager {
         return processedTasks.get();
     }
 
+    /**
+     * Enables Controlled Delay active queue management, or disables it when the controller is null.
+     * Only tasks added after this call carry the enqueue time CoDel needs.
+     *
+     * @param controller the CoDel controller, or null to disable
+     */
+    public void setCoDelController(CoDelController controller) {
+        this.coDel = controller;
+        logger.info("CoDel active queue management {}", controller != null ? "enabled" : "disabled");
+    }
+
+    /**
+     * Gets the CoDel controller.
+     *
+     * @return the CoDel controller, or null if CoDel is disabled
+     */
+    public CoDelController getCoDelController() {
+        return coDel;
+    }
+
+    /**
+     * Sets a tenant's share of throughput when the queue uses {@link QueueDiscipline#FAIR}.
+     *
+     * @param tenant the tenant
+     * @param weight the tenant's weight relative to other tenants
+     * @throws IllegalStateException if the queue is not a fair queue
+     */
+    public void setTenantWeight(String tenant, int weight) {
+        if (!(taskQueue instanceof FairTaskQueue)) {
+            throw new IllegalStateException("Tenant weights require the FAIR queue discipline");
+        }
+        ((FairTaskQueue) taskQueue).setTenantWeight(tenant, weight);
+    }
+
+    /**
+     * Sets the policy that {@link #submit(Task)} applies when the queue is full. Tasks are
+     * descriptors, so the caller-runs policy is not supported here. The drop-oldest policy drops
+     * the task submitted first, whatever the queue discipline would hand out next.
+     *
+     * @param policy the rejection policy
+     * @throws IllegalArgumentException if the policy is null or the caller-runs policy
+     */
+    public void setRejectionPolicy(RejectionPolicy<Task> policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Rejection policy cannot be null");
+        }
+        if (RejectionPolicies.isCallerRuns(policy)) {
+            throw new IllegalArgumentException("Caller-runs policy is not supported: queued tasks are descriptors");
+        }
+        this.rejectionPolicy = policy;
+    }
+
+    /**
+     * Gets the policy that {@link #submit(Task)} applies when the queue is full.
+     *
+     * @return the rejection policy
+     */
+    public RejectionPolicy<Task> getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Records that a task handed out by this manager has finished, so it is not recovered after a restart.
+     * Does nothing when the manager has no journal.
+     *
+     * @param task the finished task
+     */
+    public void markCompleted(Task task) {
+        if (journal != null) {
+            journal.recordComplete(task.getId());
+        }
+    }
+
+    /**
+     * Gets the number of tasks currently held in the spill store.
+     *
+     * @return the number of spilled tasks, or 0 if spilling is not enabled
+     */
+    public long getSpilledTasks() {
+        return spillStore == null ? 0 : spillStore.getPendingTasks();
+    }
+
+    /**
+     * Gets the metrics collector that records shed tasks.
+     *
+     * @return the metrics collector
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Gets the total time processed tasks spent waiting between submission and dequeue.
+     *
+     * @return the total wait time in milliseconds
+     */
+    public long getTotalWaitTimeMillis() {
+        return totalWaitTimeMillis.get();
+    }
+
+    /**
+     * Gets the average time processed tasks spent waiting between submission and dequeue.
+     *
+     * @return the average wait time in milliseconds
+     */
+    public double getAverageWaitTimeMillis() {
+        int processed = processedTasks.get();
+        if (processed == 0) {
+            return 0.0;
+        }
+        return (double) totalWaitTimeMillis.get() / processed;
+    }
+
     /**
      * Checks if the queue is empty.
      *
@@ -149,6 +798,14 @@ public class TaskQueueManager {
     public void shutdown() {
         isShutdown = true;
         taskQueue.clear();
+        if (spillStore != null) {
+            spillStore.close();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        // Let parked submissions observe the shutdown instead of waiting forever
+        capacityWaiters.signalAll();
         logger.info("TaskQueueManager shutdown initiated. Cleared queue of {} tasks", taskQueue.size());
     }
 
@@ -169,4 +826,86 @@ public class TaskQueueManager {
     public int remainingCapacity() {
         return taskQueue.remainingCapacity();
     }
-}
\ No newline at end of file
+
+    /**
+     * Admission target over the task queue, used by the rejection policies.
+     */
+    private final class QueueAdmissionTarget implements AdmissionTarget<Task> {
+
+        @Override
+        public boolean tryAdmit(Task task) {
+            if (isShutdown) {
+                throw new IllegalStateException("Cannot add task: TaskQueueManager has been shut down");
+            }
+            // Fail fast on a full queue instead of journaling a submit that is immediately undone
+            if (spillStore == null && taskQueue.remainingCapacity() == 0) {
+                return false;
+            }
+            beforeEnqueue(task);
+            boolean added = spillStore != null ? offerOrSpill(task) : taskQueue.offer(task);
+            if (!added) {
+                undoEnqueue(task);
+            }
+            return added;
+        }
+
+        @Override
+        public boolean tryAdmit(Task task, long timeout, TimeUnit unit) throws InterruptedException {
+            if (isShutdown) {
+                throw new IllegalStateException("Cannot add task: TaskQueueManager has been shut down");
+            }
+            beforeEnqueue(task);
+            boolean added = false;
+            try {
+                added = spillStore != null ? offerOrSpill(task) : taskQueue.offer(task, timeout, unit);
+            } finally {
+                if (!added) {
+                    undoEnqueue(task);
+                }
+            }
+            return added;
+        }
+
+        @Override
+        public boolean dropOldest() {
+            Task oldest = removeOldest();
+            if (oldest == null) {
+                return false;
+            }
+            queuedTasks.decrementAndGet();
+            shed(oldest, "drop-oldest", new TaskExecutionException("Dropped to make room for a newer task"));
+            capacityWaiters.signalAll();
+            return true;
+        }
+
+        /**
+         * Removes the task that was submitted first. The head of a FIFO queue is that task; the
+         * ordered disciplines may keep it anywhere, so they are scanned. This only runs when the
+         * queue is full and the drop-oldest policy applies.
+         *
+         * @return the removed task, or null if the queue is empty
+         */
+        private Task removeOldest() {
+            if (taskQueue instanceof FifoTaskQueue || !(taskQueue instanceof AbstractTaskQueue)) {
+                return taskQueue.poll();
+            }
+            while (true) {
+                Task oldest = null;
+                for (Task task : taskQueue) {
+                    if (oldest == null || task.getSubmissionTimeNanos() < oldest.getSubmissionTimeNanos()) {
+                        oldest = task;
+                    }
+                }
+                // Retry if a consumer took the task since the scan
+                if (oldest == null || taskQueue.remove(oldest)) {
+                    return oldest;
+                }
+            }
+        }
+
+        @Override
+        public CompletionStage<Void> awaitCapacity() {
+            return capacityWaiters.register();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.threadcontroller.service;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Flyweight over one record of an {@link OffHeapTaskQueue}.
+ *
+ * <p>A view reads straight from the queue's off-heap memory, so dequeuing allocates nothing. A
+ * consumer keeps one view, binds it with {@link OffHeapTaskQueue#poll(TaskRecordView)}, reads the
+ * fields, and calls {@link #release()} before binding it again. Views are not thread-safe and must
+ * not be shared between consumers.</p>
+ */
+public class TaskRecordView {
+    private final OffHeapTaskQueue queue;
+    private final MemorySegment records;
+    private int index = -1;
+    private long position;
+    private long offset;
+
+    TaskRecordView(OffHeapTaskQueue queue, MemorySegment records) {
+        this.queue = queue;
+        this.records = records;
+    }
+
+    void bind(int index, long position, long offset) {
+        this.index = index;
+        this.position = position;
+        this.offset = offset;
+    }
+
+    OffHeapTaskQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Checks whether the view currently points at a record.
+     *
+     * @return true if bound to a record that has not been released
+     */
+    public boolean isBound() {
+        return index >= 0;
+    }
+
+    /**
+     * Gets the operation code of the record.
+     *
+     * @return the opcode
+     */
+    public int getOpcode() {
+        checkBound();
+        return records.get(ValueLayout.JAVA_INT, offset + OffHeapTaskQueue.OPCODE_OFFSET);
+    }
+
+    /**
+     * Gets an argument of the record.
+     *
+     * @param i the argument index, from 0 to {@link OffHeapTaskQueue#ARG_COUNT} - 1
+     * @return the argument
+     */
+    public long getArg(int i) {
+        checkBound();
+        if (i < 0 || i >= OffHeapTaskQueue.ARG_COUNT) {
+            throw new IndexOutOfBoundsException("Argument index " + i + " out of range");
+        }
+        return records.get(ValueLayout.JAVA_LONG, offset + OffHeapTaskQueue.ARGS_OFFSET + (long) i * Long.BYTES);
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which the record was enqueued.
+     *
+     * @return the enqueue time
+     */
+    public long getEnqueueTimeNanos() {
+        checkBound();
+        return records.get(ValueLayout.JAVA_LONG, offset + OffHeapTaskQueue.ENQUEUE_TIME_OFFSET);
+    }
+
+    /**
+     * Gives the record's slot back to producers. The view must not be read again until it is bound
+     * to another record.
+     */
+    public void release() {
+        checkBound();
+        queue.release(index, position);
+        index = -1;
+    }
+
+    private void checkBound() {
+        if (index < 0) {
+            throw new IllegalStateException("View is not bound to a record");
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * FIFO overflow store that keeps task descriptors in append-only memory-mapped segment files.
+ *
+ * <p>Records are appended to the newest segment and read back from the oldest one. A segment file is
+ * deleted as soon as every record in it has been read, so disk use follows the backlog and heap use
+ * stays flat no matter how many tasks are spilled. Each record carries the time it was spilled, which
+ * is used to report the refill lag.</p>
+ */
+public class TaskSpillStore implements AutoCloseable {
+    private static final Logger logger = new Logger(TaskSpillStore.class);
+
+    /**
+     * Default size of a segment file.
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final MetricsCollector metricsCollector;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentId;
+    private long pendingTasks;
+    private long pendingBytes;
+    private boolean closed;
+
+    /**
+     * Constructor with the default segment size.
+     *
+     * @param directory the directory that holds the segment files
+     * @param metricsCollector the metrics collector that records spill and refill activity
+     */
+    public TaskSpillStore(Path directory, MetricsCollector metricsCollector) {
+        this(directory, DEFAULT_SEGMENT_BYTES, metricsCollector);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory that holds the segment files
+     * @param segmentBytes the size of each segment file
+     * @param metricsCollector the metrics collector that records spill and refill activity
+     */
+    public TaskSpillStore(Path directory, int segmentBytes, MetricsCollector metricsCollector) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Spill directory cannot be null");
+        }
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill directory " + directory, e);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.metricsCollector = metricsCollector;
+        logger.info("Created TaskSpillStore in {} with segment size: {} bytes", directory, segmentBytes);
+    }
+
+    /**
+     * Appends a task descriptor after every task already spilled.
+     *
+     * @param task the task to spill
+     * @throws UncheckedIOException if a new segment file cannot be created
+     */
+    public synchronized void append(Task task) {
+        if (closed) {
+            throw new IllegalStateException("Cannot spill task: spill store has been closed");
+        }
+        int maxRecordBytes = RECORD_HEADER_BYTES + TaskDescriptorCodec.encodedSize(task);
+        if (maxRecordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Task descriptor does not fit in a spill segment");
+        }
+
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.buffer.remaining() < maxRecordBytes) {
+            if (tail != null) {
+                tail.sealed = true;
+            }
+            tail = openSegment();
+        }
+
+        ByteBuffer buffer = tail.buffer;
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_BYTES);
+        int payload = TaskDescriptorCodec.encode(task, buffer);
+        buffer.putInt(start, payload);
+        buffer.putLong(start + Integer.BYTES, System.currentTimeMillis());
+        tail.writePosition = buffer.position();
+
+        int recordBytes = RECORD_HEADER_BYTES + payload;
+        pendingTasks++;
+        pendingBytes += recordBytes;
+        metricsCollector.recordTaskSpilled(recordBytes);
+    }
+
+    /**
+     * Removes the oldest spilled task.
+     *
+     * @return the oldest spilled task, or null if nothing is spilled
+     */
+    public synchronized Task poll() {
+        while (true) {
+            Segment head = segments.peekFirst();
+            if (head == null) {
+                return null;
+            }
+            if (head.readPosition < head.writePosition) {
+                ByteBuffer reader = head.reader;
+                reader.position(head.readPosition);
+                int payload = reader.getInt();
+                long spilledAt = reader.getLong();
+                Task task = TaskDescriptorCodec.decode(reader);
+                head.readPosition = reader.position();
+
+                int recordBytes = RECORD_HEADER_BYTES + payload;
+                pendingTasks--;
+                pendingBytes -= recordBytes;
+                metricsCollector.recordTaskRefilled(System.currentTimeMillis() - spilledAt);
+                return task;
+            }
+            if (!head.sealed) {
+                return null;
+            }
+            segments.pollFirst();
+            deleteSegment(head);
+        }
+    }
+
+    /**
+     * Checks if any spilled task is waiting to be read back.
+     *
+     * @return true if at least one task is spilled
+     */
+    public synchronized boolean hasPending() {
+        return pendingTasks > 0;
+    }
+
+    /**
+     * Gets the number of spilled tasks waiting to be read back.
+     *
+     * @return the number of spilled tasks
+     */
+    public synchronized long getPendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * Gets the number of bytes of spilled records waiting to be read back.
+     *
+     * @return the number of spilled bytes
+     */
+    public synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Gets the number of segment files currently on disk.
+     *
+     * @return the segment count
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Deletes every segment file. Spilled tasks that were not read back are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (pendingTasks > 0) {
+            logger.warn("Closing spill store with {} unread tasks", pendingTasks);
+        }
+        Segment segment;
+        while ((segment = segments.pollFirst()) != null) {
+            deleteSegment(segment);
+        }
+        pendingTasks = 0;
+        pendingBytes = 0;
+    }
+
+    private Segment openSegment() {
+        Path path = directory.resolve(String.format("tasks-%010d.spill", nextSegmentId++));
+        // Each segment gets its own arena so that deleting it unmaps the file at once instead of
+        // leaving the mapping to the garbage collector
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes, arena).asByteBuffer();
+            Segment segment = new Segment(path, arena, buffer);
+            segments.addLast(segment);
+            logger.debug("Opened spill segment {}", path);
+            return segment;
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException("Cannot create spill segment " + path, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        segment.arena.close();
+        try {
+            Files.deleteIfExists(segment.path);
+            logger.debug("Deleted spill segment {}", segment.path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete spill segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    /**
+     * A mapped segment file with separate write and read positions.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final Arena arena;
+        private final ByteBuffer buffer;
+        private final ByteBuffer reader;
+        private int writePosition;
+        private int readPosition;
+        private boolean sealed;
+
+        Segment(Path path, Arena arena, ByteBuffer buffer) {
+            this.path = path;
+            this.arena = arena;
+            this.buffer = buffer;
+            this.reader = buffer.duplicate();
+        }
+    }
+}
@@ -3,17 +3,36 @@ package com.example.threadcontroller.service;
 import com.example.threadcontroller.model.Task;
 import com.example.threadcontroller.util.Logger;
 import com.example.threadcontroller.util.ShutdownException;
+import com.example.threadcontroller.util.TaskExecutionException;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Service for submitting tasks to the thread controller.
+ *
+ * <p>Optionally limits the number of submitted tasks that have not finished yet. A submission
+ * beyond the limit is handed to a {@link RejectionPolicy}; a policy that rejects it immediately
+ * makes {@code submitTask} throw {@link RejectedExecutionException}, and a task dropped later by
+ * the drop-oldest policy completes its future exceptionally.</p>
  */
 public class TaskSubmissionService {
     private static final Logger logger = new Logger(TaskSubmissionService.class);
 
     private final ExecutorService executorService;
+    private final int maxPendingTasks;
+    private final Semaphore pendingSlots;
+    private final RejectionPolicy<Runnable> rejectionPolicy;
+    private final ConcurrentLinkedDeque<Admission<?>> waitingAdmissions = new ConcurrentLinkedDeque<>();
+    private final CapacityWaiters capacityWaiters = new CapacityWaiters();
+    private final AdmissionTarget<Runnable> admissionTarget = new SubmissionAdmissionTarget();
     private volatile boolean isShutdown;
 
     /**
@@ -22,9 +41,34 @@ public class TaskSubmissionService {
      * @param executorService the executor service to use for task execution
      */
     public TaskSubmissionService(ExecutorService executorService) {
+        this(executorService, 0, RejectionPolicies.abort());
+    }
+
+    /**
+     * Constructor with a limit on unfinished tasks.
+     *
+     * @param executorService the executor service to use for task execution
+     * @param maxPendingTasks the maximum number of submitted tasks that have not finished, or 0 for no limit
+     * @param rejectionPolicy the policy applied to submissions beyond the limit
+     */
+    public TaskSubmissionService(ExecutorService executorService, int maxPendingTasks,
+                                 RejectionPolicy<Runnable> rejectionPolicy) {
+        if (maxPendingTasks < 0) {
+            throw new IllegalArgumentException("Max pending tasks must be >= 0");
+        }
+        if (rejectionPolicy == null) {
+            throw new IllegalArgumentException("Rejection policy cannot be null");
+        }
         this.executorService = executorService;
+        this.maxPendingTasks = maxPendingTasks;
+        this.pendingSlots = new Semaphore(maxPendingTasks);
+        this.rejectionPolicy = rejectionPolicy;
         this.isShutdown = false;
-        logger.info("Created TaskSubmissionService");
+        if (maxPendingTasks > 0) {
+            logger.info("Created TaskSubmissionService with max {} pending tasks", maxPendingTasks);
+        } else {
+            logger.info("Created TaskSubmissionService");
+        }
     }
 
     /**
@@ -40,16 +84,17 @@ public class TaskSubmissionService {
         }
 
         logger.info("Submitting Runnable task");
-        return CompletableFuture.runAsync(() -> {
+        return dispatch(() -> {
             try {
                 logger.debug("Executing Runnable task");
                 task.run();
                 logger.debug("Runnable task completed successfully");
+                return null;
             } catch (Exception e) {
                 logger.error("Runnable task failed with exception: {}", e.getMessage(), e);
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        });
     }
 
     /**
@@ -66,7 +111,7 @@ public class TaskSubmissionService {
         }
 
         logger.info("Submitting Callable task");
-        return CompletableFuture.supplyAsync(() -> {
+        return dispatch(() -> {
             try {
                 logger.debug("Executing Callable task");
                 T result = task.call();
@@ -76,7 +121,7 @@ public class TaskSubmissionService {
                 logger.error("Callable task failed with exception: {}", e.getMessage(), e);
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        });
     }
 
     /**
@@ -93,22 +138,26 @@ public class TaskSubmissionService {
         }
 
         logger.info("Submitting Runnable task with model ID: {}", taskModel.getId());
-        taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.RUNNING);
+        if (!taskModel.tryTransition(com.example.threadcontroller.model.TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
 
-        return CompletableFuture.runAsync(() -> {
+        return dispatch(() -> {
             try {
                 logger.debug("Executing Runnable task with model ID: {}", taskModel.getId());
                 task.run();
-                taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.COMPLETED);
-                logger.debug("Runnable task with model ID: {} completed successfully", taskModel.getId());
+                if (taskModel.tryComplete(null)) {
+                    logger.debug("Runnable task with model ID: {} completed successfully", taskModel.getId());
+                }
+                return null;
             } catch (Exception e) {
-                taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.FAILED);
-                taskModel.setException(e);
-                logger.error("Runnable task with model ID: {} failed with exception: {}",
-                           taskModel.getId(), e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    logger.error("Runnable task with model ID: {} failed with exception: {}",
+                               taskModel.getId(), e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        });
     }
 
     /**
@@ -126,24 +175,91 @@ public class TaskSubmissionService {
         }
 
         logger.info("Submitting Callable task with model ID: {}", taskModel.getId());
-        taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.RUNNING);
+        if (!taskModel.tryTransition(com.example.threadcontroller.model.TaskStatus.RUNNING)) {
+            return notStartable(taskModel);
+        }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return dispatch(() -> {
             try {
                 logger.debug("Executing Callable task with model ID: {}", taskModel.getId());
                 T result = task.call();
-                taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.COMPLETED);
-                taskModel.setResult(result);
-                logger.debug("Callable task with model ID: {} completed successfully", taskModel.getId());
+                if (taskModel.tryComplete(result)) {
+                    logger.debug("Callable task with model ID: {} completed successfully", taskModel.getId());
+                }
                 return result;
             } catch (Exception e) {
-                taskModel.setStatus(com.example.threadcontroller.model.TaskStatus.FAILED);
-                taskModel.setException(e);
-                logger.error("Callable task with model ID: {} failed with exception: {}",
-                           taskModel.getId(), e.getMessage(), e);
+                if (taskModel.tryFail(e)) {
+                    logger.error("Callable task with model ID: {} failed with exception: {}",
+                               taskModel.getId(), e.getMessage(), e);
+                }
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        });
+    }
+
+    /**
+     * Fails the submission of a task that has already been started or finished.
+     *
+     * @param taskModel the task model
+     * @param <T> the result type
+     * @return a future failed with a {@link TaskExecutionException}
+     */
+    private static <T> CompletableFuture<T> notStartable(Task taskModel) {
+        logger.warn("Task with model ID: {} cannot start from status {}", taskModel.getId(), taskModel.getStatus());
+        return CompletableFuture.failedFuture(new TaskExecutionException(
+            "Task " + taskModel.getId() + " cannot start from status " + taskModel.getStatus()));
+    }
+
+    /**
+     * Runs a task body on the executor, going through the pending limit and rejection policy when
+     * one is configured.
+     *
+     * @param body the task body
+     * @param <T> the result type
+     * @return a CompletableFuture representing the task execution
+     */
+    private <T> CompletableFuture<T> dispatch(Supplier<T> body) {
+        if (maxPendingTasks == 0) {
+            return CompletableFuture.supplyAsync(body, executorService);
+        }
+
+        Admission<T> admission = new Admission<>(body);
+        CompletableFuture<T> future = admission.future;
+        if (!admissionTarget.tryAdmit(admission)) {
+            logger.debug("Pending task limit of {} reached, applying rejection policy", maxPendingTasks);
+            rejectionPolicy.rejected(admission, admissionTarget).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Frees the pending slot of a finished or dropped task and wakes parked submissions.
+     */
+    private void releaseSlot() {
+        pendingSlots.release();
+        capacityWaiters.signalAll();
+    }
+
+    /**
+     * Gets the number of submitted tasks that have not finished yet. Always 0 without a limit.
+     *
+     * @return the pending task count
+     */
+    public int getPendingTaskCount() {
+        return maxPendingTasks == 0 ? 0 : maxPendingTasks - pendingSlots.availablePermits();
+    }
+
+    /**
+     * Gets the maximum number of submitted tasks that may be unfinished.
+     *
+     * @return the limit, or 0 if there is none
+     */
+    public int getMaxPendingTasks() {
+        return maxPendingTasks;
     }
 
     /**
@@ -162,4 +278,116 @@ public class TaskSubmissionService {
     public boolean isShutdown() {
         return isShutdown;
     }
-}
\ No newline at end of file
+
+    /**
+     * A submitted task body that holds a pending slot until it finishes. Whoever claims it first
+     * decides its fate: the executor runs it, or the drop-oldest policy fails it.
+     *
+     * @param <T> the result type
+     */
+    private final class Admission<T> implements Runnable {
+        private final Supplier<T> body;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        private Admission(Supplier<T> body) {
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            // Usually the head, since executors start tasks roughly in submission order
+            waitingAdmissions.remove(this);
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = body.get();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            // Free the slot first, so a caller woken by the future can resubmit straight away
+            releaseSlot();
+            complete(result, failure);
+        }
+
+        private void runInCaller() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                complete(body.get(), null);
+            } catch (Throwable t) {
+                complete(null, t);
+            }
+        }
+
+        private boolean drop() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            releaseSlot();
+            future.completeExceptionally(new RejectedExecutionException("Dropped to make room for a newer task"));
+            return true;
+        }
+
+        private void complete(T result, Throwable failure) {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Admission target over the pending slots, used by the rejection policy.
+     */
+    private final class SubmissionAdmissionTarget implements CallerRunsAdmissionTarget<Runnable> {
+
+        @Override
+        public boolean tryAdmit(Runnable task) {
+            return pendingSlots.tryAcquire() && start((Admission<?>) task);
+        }
+
+        @Override
+        public boolean tryAdmit(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+            return pendingSlots.tryAcquire(timeout, unit) && start((Admission<?>) task);
+        }
+
+        private boolean start(Admission<?> admission) {
+            waitingAdmissions.add(admission);
+            try {
+                executorService.execute(admission);
+            } catch (RejectedExecutionException e) {
+                waitingAdmissions.remove(admission);
+                releaseSlot();
+                throw e;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean dropOldest() {
+            Admission<?> oldest;
+            while ((oldest = waitingAdmissions.poll()) != null) {
+                if (oldest.drop()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void runInCaller(Runnable task) {
+            ((Admission<?>) task).runInCaller();
+        }
+
+        @Override
+        public CompletionStage<Void> awaitCapacity() {
+            return capacityWaiters.register();
+        }
+    }
+}
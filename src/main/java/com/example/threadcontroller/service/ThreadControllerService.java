@@ -1,16 +1,20 @@
 package com.example.threadcontroller.service;
 
+import com.example.threadcontroller.model.OverrunPolicy;
 import com.example.threadcontroller.model.ThreadController;
 import com.example.threadcontroller.model.ThreadPoolConfiguration;
 import com.example.threadcontroller.model.ThreadType;
 import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
 import com.example.threadcontroller.util.ShutdownException;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for managing thread controller operations.
@@ -19,7 +23,14 @@ public class ThreadControllerService {
     private static final Logger logger = new Logger(ThreadControllerService.class);
 
     private final ThreadController controller;
+    private final MetricsCollector metricsCollector;
     private ExecutorService executorService;
+    private ThreadPoolResizer resizer;
+    private KeyedSerialExecutor keyedExecutor;
+    private volatile HierarchicalTimingWheel timingWheel;
+    private final LongAdder untrackedSubmitted = new LongAdder();
+    private final LongAdder untrackedCompleted = new LongAdder();
+    private final LongAdder untrackedFailed = new LongAdder();
     private final Object lock = new Object();
 
     /**
@@ -27,6 +38,7 @@ public class ThreadControllerService {
      */
     public ThreadControllerService() {
         this.controller = new ThreadController();
+        this.metricsCollector = new MetricsCollector();
         initializeExecutorService();
         logger.info("Created ThreadControllerService with default configuration");
     }
@@ -38,6 +50,7 @@ public class ThreadControllerService {
      */
     public ThreadControllerService(ThreadPoolConfiguration configuration) {
         this.controller = new ThreadController(configuration);
+        this.metricsCollector = new MetricsCollector();
         initializeExecutorService();
         logger.info("Created ThreadControllerService with configuration: {}", configuration);
     }
@@ -54,61 +67,165 @@ public class ThreadControllerService {
             ThreadType threadType = controller.getThreadType();
             int poolSize = controller.getPoolSize();
 
+            executorService = ExecutorFactory.createExecutor(controller.getConfiguration(), metricsCollector);
+            resizer = new ThreadPoolResizer(controller, executorService);
+            keyedExecutor = new KeyedSerialExecutor(executorService);
             if (threadType == ThreadType.VIRTUAL) {
-                executorService = createVirtualThreadExecutor();
                 logger.info("Initialized virtual thread executor with pool size: {}", poolSize);
             } else {
-                executorService = createPlatformThreadExecutor(poolSize);
-                logger.info("Initialized platform thread executor with pool size: {}", poolSize);
+                logger.info("Initialized {} platform thread executor with pool size: {}",
+                           controller.getConfiguration().getExecutorEngine(), poolSize);
             }
         }
     }
 
     /**
-     * Creates a virtual thread executor.
+     * Submits a task for execution.
      *
-     * @return the virtual thread executor
+     * @param task the task to execute
+     * @return a CompletableFuture representing the task execution
+     * @throws ShutdownException if the controller has been shut down
      */
-    private ExecutorService createVirtualThreadExecutor() {
-        ThreadFactory threadFactory = Thread.ofVirtual().name("virtual-thread-", 0).factory();
-        return Executors.newThreadPerTaskExecutor(threadFactory);
+    public CompletableFuture<Void> submitTask(Runnable task) throws ShutdownException {
+        if (controller.isShutdown()) {
+            throw new ShutdownException("Cannot submit task: ThreadController has been shut down");
+        }
+
+        controller.incrementSubmittedTasks();
+        logger.info("Submitting task. Total submitted tasks: {}", controller.getSubmittedTasks());
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.run();
+                controller.incrementCompletedTasks();
+                logger.info("Task completed. Total completed tasks: {}", controller.getCompletedTasks());
+            } catch (Exception e) {
+                logger.error("Task failed with exception: {}", e.getMessage(), e);
+                throw new RuntimeException(e);
+            }
+        }, executorService);
     }
 
     /**
-     * Creates a platform thread executor.
+     * Submits a callable task for execution.
      *
-     * @param poolSize the pool size
-     * @return the platform thread executor
+     * @param task the task to execute
+     * @param <T>  the result type
+     * @return a CompletableFuture representing the task execution
+     * @throws ShutdownException if the controller has been shut down
      */
-    private ExecutorService createPlatformThreadExecutor(int poolSize) {
-        ThreadFactory threadFactory = new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger(0);
+    public <T> CompletableFuture<T> submitTask(java.util.concurrent.Callable<T> task) throws ShutdownException {
+        if (controller.isShutdown()) {
+            throw new ShutdownException("Cannot submit task: ThreadController has been shut down");
+        }
 
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread thread = new Thread(r);
-                thread.setName("platform-thread-" + counter.getAndIncrement());
-                return thread;
+        controller.incrementSubmittedTasks();
+        logger.info("Submitting callable task. Total submitted tasks: {}", controller.getSubmittedTasks());
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                T result = task.call();
+                controller.incrementCompletedTasks();
+                logger.info("Callable task completed. Total completed tasks: {}", controller.getCompletedTasks());
+                return result;
+            } catch (Exception e) {
+                logger.error("Callable task failed with exception: {}", e.getMessage(), e);
+                throw new RuntimeException(e);
             }
-        };
-        return Executors.newFixedThreadPool(poolSize, threadFactory);
+        }, executorService);
     }
 
     /**
-     * Submits a task for execution.
+     * Hands a fire-and-forget task straight to the executor.
+     *
+     * <p>Unlike {@link #submitTask(Runnable)}, no future is created, nothing is logged per task and
+     * the shared submitted and completed counters are not touched. Aggregate counts are kept on
+     * striped counters instead, and an exception is only logged, since there is no caller to report
+     * it to. An {@link Error} is counted as a failure and rethrown.</p>
+     *
+     * @param task the task to execute
+     * @throws ShutdownException if the controller has been shut down
+     * @throws RejectedExecutionException if the executor rejects the task
+     */
+    public void executeUntracked(Runnable task) throws ShutdownException {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (controller.isShutdown()) {
+            throw new ShutdownException("Cannot submit task: ThreadController has been shut down");
+        }
+
+        untrackedSubmitted.increment();
+        try {
+            executorService.execute(() -> runUntracked(task));
+        } catch (RejectedExecutionException e) {
+            untrackedSubmitted.decrement();
+            throw e;
+        }
+    }
+
+    private void runUntracked(Runnable task) {
+        try {
+            task.run();
+            untrackedCompleted.increment();
+        } catch (Exception e) {
+            untrackedFailed.increment();
+            logger.error("Untracked task failed with exception: {}", e.getMessage(), e);
+        } catch (Error e) {
+            // Errors are counted but left to the worker thread's uncaught exception handler
+            untrackedFailed.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of tasks accepted by {@link #executeUntracked(Runnable)}.
+     *
+     * @return the untracked submitted task count
+     */
+    public long getUntrackedSubmittedTasks() {
+        return untrackedSubmitted.sum();
+    }
+
+    /**
+     * Gets the number of untracked tasks that completed normally.
+     *
+     * @return the untracked completed task count
+     */
+    public long getUntrackedCompletedTasks() {
+        return untrackedCompleted.sum();
+    }
+
+    /**
+     * Gets the number of untracked tasks that threw.
+     *
+     * @return the untracked failed task count
+     */
+    public long getUntrackedFailedTasks() {
+        return untrackedFailed.sum();
+    }
+
+    /**
+     * Submits a task that runs after every task previously submitted with the same key.
+     * Tasks with different keys run in parallel.
      *
+     * @param key the ordering key
      * @param task the task to execute
      * @return a CompletableFuture representing the task execution
      * @throws ShutdownException if the controller has been shut down
      */
-    public CompletableFuture<Void> submitTask(Runnable task) throws ShutdownException {
+    public CompletableFuture<Void> submitTask(Object key, Runnable task) throws ShutdownException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
         if (controller.isShutdown()) {
             throw new ShutdownException("Cannot submit task: ThreadController has been shut down");
         }
 
         controller.incrementSubmittedTasks();
-        logger.info("Submitting task. Total submitted tasks: {}", controller.getSubmittedTasks());
+        logger.info("Submitting task for key {}. Total submitted tasks: {}", key, controller.getSubmittedTasks());
 
+        KeyedSerialExecutor keyed = keyedExecutor;
         return CompletableFuture.runAsync(() -> {
             try {
                 task.run();
@@ -118,25 +235,31 @@ public class ThreadControllerService {
                 logger.error("Task failed with exception: {}", e.getMessage(), e);
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        }, runnable -> keyed.execute(key, runnable));
     }
 
     /**
-     * Submits a callable task for execution.
+     * Submits a callable task that runs after every task previously submitted with the same key.
+     * Tasks with different keys run in parallel.
      *
+     * @param key the ordering key
      * @param task the task to execute
      * @param <T>  the result type
      * @return a CompletableFuture representing the task execution
      * @throws ShutdownException if the controller has been shut down
      */
-    public <T> CompletableFuture<T> submitTask(java.util.concurrent.Callable<T> task) throws ShutdownException {
+    public <T> CompletableFuture<T> submitTask(Object key, java.util.concurrent.Callable<T> task) throws ShutdownException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
         if (controller.isShutdown()) {
             throw new ShutdownException("Cannot submit task: ThreadController has been shut down");
         }
 
         controller.incrementSubmittedTasks();
-        logger.info("Submitting callable task. Total submitted tasks: {}", controller.getSubmittedTasks());
+        logger.info("Submitting callable task for key {}. Total submitted tasks: {}", key, controller.getSubmittedTasks());
 
+        KeyedSerialExecutor keyed = keyedExecutor;
         return CompletableFuture.supplyAsync(() -> {
             try {
                 T result = task.call();
@@ -147,7 +270,164 @@ public class ThreadControllerService {
                 logger.error("Callable task failed with exception: {}", e.getMessage(), e);
                 throw new RuntimeException(e);
             }
-        }, executorService);
+        }, runnable -> keyed.execute(key, runnable));
+    }
+
+    /**
+     * Runs a task once after a delay. The delay is kept by a timing wheel, so no pool thread is
+     * held while waiting. Cancelling the returned future cancels the timer.
+     *
+     * @param task the task to execute
+     * @param delay the delay from now
+     * @param unit the time unit of the delay
+     * @return a CompletableFuture representing the delayed execution
+     * @throws ShutdownException if the controller has been shut down
+     */
+    public CompletableFuture<Void> schedule(Runnable task, long delay, TimeUnit unit) throws ShutdownException {
+        return schedule(callable(task), delay, unit);
+    }
+
+    /**
+     * Runs a callable task once after a delay. Cancelling the returned future cancels the timer.
+     *
+     * @param task the task to execute
+     * @param delay the delay from now
+     * @param unit the time unit of the delay
+     * @param <T>  the result type
+     * @return a CompletableFuture representing the delayed execution
+     * @throws ShutdownException if the controller has been shut down
+     */
+    public <T> CompletableFuture<T> schedule(Callable<T> task, long delay, TimeUnit unit) throws ShutdownException {
+        ScheduledRun<T> run = new ScheduledRun<>(task, 0, false, OverrunPolicy.CATCH_UP);
+        run.start(delay, unit);
+        logger.info("Scheduled task to run in {} {}", delay, unit);
+        return run.future;
+    }
+
+    /**
+     * Runs a task periodically at a fixed rate, catching up on runs missed by an overrun.
+     *
+     * @param task the task to execute
+     * @param initialDelay the delay before the first run
+     * @param period the time between the starts of successive runs
+     * @param unit the time unit of the delay and period
+     * @return a CompletableFuture that completes exceptionally if a run fails, and can be cancelled to stop the schedule
+     * @throws ShutdownException if the controller has been shut down
+     */
+    public CompletableFuture<Void> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit)
+            throws ShutdownException {
+        return scheduleAtFixedRate(task, initialDelay, period, unit, OverrunPolicy.CATCH_UP);
+    }
+
+    /**
+     * Runs a task periodically at a fixed rate. Runs never overlap; when one finishes after the
+     * next was due, the overrun policy decides whether the missed runs happen late or not at all.
+     *
+     * @param task the task to execute
+     * @param initialDelay the delay before the first run
+     * @param period the time between the starts of successive runs
+     * @param unit the time unit of the delay and period
+     * @param overrunPolicy what to do with runs missed because of an overrun
+     * @return a CompletableFuture that completes exceptionally if a run fails, and can be cancelled to stop the schedule
+     * @throws ShutdownException if the controller has been shut down
+     */
+    public CompletableFuture<Void> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit,
+                                                      OverrunPolicy overrunPolicy) throws ShutdownException {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        if (overrunPolicy == null) {
+            throw new IllegalArgumentException("Overrun policy cannot be null");
+        }
+        ScheduledRun<Void> run = new ScheduledRun<>(callable(task),
+            unit.toNanos(period), true, overrunPolicy);
+        run.start(initialDelay, unit);
+        logger.info("Scheduled task at fixed rate of {} {} with {} on overrun", period, unit, overrunPolicy);
+        return run.future;
+    }
+
+    /**
+     * Runs a task periodically with a fixed delay between the end of one run and the start of the next.
+     *
+     * @param task the task to execute
+     * @param initialDelay the delay before the first run
+     * @param delay the time between the end of a run and the start of the next
+     * @param unit the time unit of the delays
+     * @return a CompletableFuture that completes exceptionally if a run fails, and can be cancelled to stop the schedule
+     * @throws ShutdownException if the controller has been shut down
+     */
+    public CompletableFuture<Void> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit)
+            throws ShutdownException {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+        ScheduledRun<Void> run = new ScheduledRun<>(callable(task),
+            unit.toNanos(delay), false, OverrunPolicy.CATCH_UP);
+        run.start(initialDelay, unit);
+        logger.info("Scheduled task with fixed delay of {} {}", delay, unit);
+        return run.future;
+    }
+
+    /**
+     * Gets the number of scheduled runs waiting for their time to come.
+     *
+     * @return the pending timer count
+     */
+    public int getPendingTimerCount() {
+        HierarchicalTimingWheel wheel = timingWheel;
+        return wheel == null ? 0 : wheel.getPendingTimerCount();
+    }
+
+    private static Callable<Void> callable(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return Executors.callable(task, null);
+    }
+
+    /**
+     * Gets the timing wheel, creating it on first use so that controllers that never schedule do
+     * not start a ticker thread.
+     *
+     * @return the timing wheel
+     * @throws ShutdownException if the controller has been shut down
+     */
+    private HierarchicalTimingWheel timingWheel() throws ShutdownException {
+        HierarchicalTimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            return wheel;
+        }
+        synchronized (lock) {
+            if (controller.isShutdown()) {
+                throw new ShutdownException("Cannot schedule task: ThreadController has been shut down");
+            }
+            if (timingWheel == null) {
+                timingWheel = HierarchicalTimingWheel.start(this::dispatchScheduled);
+            }
+            return timingWheel;
+        }
+    }
+
+    /**
+     * Hands an expired timer to the pool, failing its future if the pool rejects it.
+     *
+     * @param run the scheduled run
+     */
+    private void dispatchScheduled(Runnable run) {
+        try {
+            executorService.execute(run);
+        } catch (RejectedExecutionException e) {
+            ((ScheduledRun<?>) run).future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Gets the number of keys that currently have a running or queued keyed task.
+     *
+     * @return the number of active keys
+     */
+    public int getActiveKeyCount() {
+        return keyedExecutor.getActiveKeyCount();
     }
 
     /**
@@ -158,6 +438,12 @@ public class ThreadControllerService {
             if (!controller.isShutdown()) {
                 controller.setShutdown(true);
                 logger.info("Initiating graceful shutdown");
+                if (timingWheel != null) {
+                    // Stop timers first so none fires into an executor that is shutting down
+                    for (Runnable unfired : timingWheel.stop()) {
+                        ((ScheduledRun<?>) unfired).future.cancel(false);
+                    }
+                }
                 if (executorService != null) {
                     executorService.shutdown();
                 }
@@ -183,6 +469,24 @@ public class ThreadControllerService {
         return controller;
     }
 
+    /**
+     * Gets the metrics collector for this controller.
+     *
+     * @return the metrics collector
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Gets the executor service that runs submitted tasks.
+     *
+     * @return the executor service
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     /**
      * Resizes the thread pool.
      *
@@ -194,17 +498,106 @@ public class ThreadControllerService {
                 throw new IllegalStateException("Cannot resize pool: ThreadController has been shut down");
             }
 
-            ThreadPoolConfiguration config = controller.getConfiguration();
-            config.setMaximumPoolSize(newSize);
-            config.setCorePoolSize(newSize);
-            controller.setConfiguration(config);
+            // Resize the running executor in place so warm threads and queued work are kept
+            resizer.resizePool(newSize);
+
+            logger.info("Resized thread pool to size: {}", newSize);
+        }
+    }
+
+    /**
+     * One delayed or periodic task. Each run re-arms the timer for the next one, so periodic runs
+     * never overlap and no thread waits between them.
+     *
+     * @param <T> the result type
+     */
+    private final class ScheduledRun<T> implements Runnable {
+        private final Callable<T> task;
+        private final long periodNanos;
+        private final boolean fixedRate;
+        private final OverrunPolicy overrunPolicy;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile TimerHandle timer;
+        private long nextRunNanos;
 
-            // For platform threads, we need to recreate the executor
-            if (controller.getThreadType() == ThreadType.PLATFORM) {
-                initializeExecutorService();
+        private ScheduledRun(Callable<T> task, long periodNanos, boolean fixedRate, OverrunPolicy overrunPolicy) {
+            if (task == null) {
+                throw new IllegalArgumentException("Task cannot be null");
             }
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.fixedRate = fixedRate;
+            this.overrunPolicy = overrunPolicy;
+            future.whenComplete((result, error) -> {
+                TimerHandle current = timer;
+                if (future.isCancelled() && current != null) {
+                    current.cancel();
+                }
+            });
+        }
 
-            logger.info("Resized thread pool to size: {}", newSize);
+        private void start(long delay, TimeUnit unit) throws ShutdownException {
+            if (controller.isShutdown()) {
+                throw new ShutdownException("Cannot schedule task: ThreadController has been shut down");
+            }
+            long delayNanos = unit.toNanos(Math.max(0, delay));
+            nextRunNanos = System.nanoTime() + delayNanos;
+            arm(timingWheel(), delayNanos);
+        }
+
+        private void arm(HierarchicalTimingWheel wheel, long delayNanos) {
+            timer = wheel.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+            // A cancel that raced with re-arming must not leave the new timer running
+            if (future.isDone()) {
+                timer.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            controller.incrementSubmittedTasks();
+            T result;
+            try {
+                result = task.call();
+                controller.incrementCompletedTasks();
+            } catch (Exception e) {
+                logger.error("Scheduled task failed with exception: {}", e.getMessage(), e);
+                future.completeExceptionally(new RuntimeException(e));
+                return;
+            }
+            if (periodNanos == 0) {
+                future.complete(result);
+                return;
+            }
+            rearm();
+        }
+
+        private void rearm() {
+            long now = System.nanoTime();
+            if (fixedRate) {
+                nextRunNanos += periodNanos;
+                if (overrunPolicy == OverrunPolicy.SKIP && nextRunNanos - now < 0) {
+                    long missed = (now - nextRunNanos) / periodNanos + 1;
+                    nextRunNanos += missed * periodNanos;
+                    logger.debug("Scheduled task overran its period, skipping {} runs", missed);
+                }
+            } else {
+                nextRunNanos = now + periodNanos;
+            }
+            HierarchicalTimingWheel wheel = timingWheel;
+            if (wheel == null || controller.isShutdown()) {
+                future.cancel(false);
+                return;
+            }
+            try {
+                arm(wheel, Math.max(0, nextRunNanos - now));
+            } catch (IllegalStateException e) {
+                // The wheel was stopped by a concurrent shutdown
+                future.cancel(false);
+            }
         }
     }
-}
\ No newline at end of file
+}
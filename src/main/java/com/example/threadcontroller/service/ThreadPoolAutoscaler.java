@@ -0,0 +1,238 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.AutoscalerConfiguration;
+import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Background autoscaler that resizes a thread pool from queue and CPU measurements.
+ *
+ * <p>Each sample reads the queue depth, the average queue wait and the throughput since the previous
+ * sample, and the process CPU load. The pool grows when the queue is under pressure for several
+ * consecutive samples and shrinks when it has been idle for several consecutive samples. Separate
+ * scale-up and scale-down thresholds, the consecutive-sample requirement and a cooldown after every
+ * resize keep the pool from oscillating. Growth is held back when the CPU is saturated or when the
+ * previous scale-up did not raise throughput.</p>
+ */
+public class ThreadPoolAutoscaler {
+    private static final Logger logger = new Logger(ThreadPoolAutoscaler.class);
+
+    private final ThreadPoolResizer resizer;
+    private final TaskQueueManager queueManager;
+    private final MetricsCollector metricsCollector;
+    private final AutoscalerConfiguration configuration;
+    private final DoubleSupplier cpuLoadSupplier;
+    private ScheduledExecutorService scheduler;
+
+    private long lastSampleNanos;
+    private int lastProcessedTasks;
+    private long lastTotalWaitMillis;
+    private int pressureSamples;
+    private int idleSamples;
+    private long lastResizeNanos;
+    private boolean hasResized;
+    private double lastScaleUpThroughput;
+
+    /**
+     * Constructor.
+     *
+     * @param resizer the resizer for the pool being scaled
+     * @param queueManager the queue feeding the pool
+     * @param metricsCollector the metrics collector that records scaling decisions
+     * @param configuration the autoscaler configuration
+     */
+    public ThreadPoolAutoscaler(ThreadPoolResizer resizer, TaskQueueManager queueManager,
+                                MetricsCollector metricsCollector, AutoscalerConfiguration configuration) {
+        this(resizer, queueManager, metricsCollector, configuration, ThreadPoolAutoscaler::processCpuLoad);
+    }
+
+    /**
+     * Constructor with a custom CPU load source.
+     *
+     * @param resizer the resizer for the pool being scaled
+     * @param queueManager the queue feeding the pool
+     * @param metricsCollector the metrics collector that records scaling decisions
+     * @param configuration the autoscaler configuration
+     * @param cpuLoadSupplier supplies the CPU load in [0, 1], or a negative value if unavailable
+     */
+    ThreadPoolAutoscaler(ThreadPoolResizer resizer, TaskQueueManager queueManager,
+                         MetricsCollector metricsCollector, AutoscalerConfiguration configuration,
+                         DoubleSupplier cpuLoadSupplier) {
+        configuration.validate();
+        this.resizer = resizer;
+        this.queueManager = queueManager;
+        this.metricsCollector = metricsCollector;
+        this.configuration = configuration;
+        this.cpuLoadSupplier = cpuLoadSupplier;
+        this.lastSampleNanos = System.nanoTime();
+        this.lastProcessedTasks = queueManager.getProcessedTasks();
+        this.lastTotalWaitMillis = queueManager.getTotalWaitTimeMillis();
+        this.lastScaleUpThroughput = -1;
+        logger.info("Created ThreadPoolAutoscaler with configuration: {}", configuration);
+    }
+
+    /**
+     * Starts sampling in the background.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            logger.warn("Autoscaler already started");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "thread-pool-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = configuration.getSampleIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::sampleSafely, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Autoscaler started with sample interval: {}ms", interval);
+    }
+
+    /**
+     * Stops background sampling.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            logger.info("Autoscaler stopped");
+        }
+    }
+
+    /**
+     * Checks if the autoscaler is sampling in the background.
+     *
+     * @return true if running, false otherwise
+     */
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (IllegalStateException e) {
+            logger.warn("Stopping autoscaler: {}", e.getMessage());
+            stop();
+        } catch (RuntimeException e) {
+            logger.error("Autoscaler sample failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Takes one sample and resizes the pool if the scaling rules call for it.
+     */
+    synchronized void sample() {
+        long now = System.nanoTime();
+        int queueDepth = queueManager.getQueueSize();
+        int processedTasks = queueManager.getProcessedTasks();
+        long totalWaitMillis = queueManager.getTotalWaitTimeMillis();
+
+        int processedDelta = processedTasks - lastProcessedTasks;
+        double elapsedSeconds = (now - lastSampleNanos) / 1_000_000_000.0;
+        double throughput = elapsedSeconds > 0 ? processedDelta / elapsedSeconds : 0.0;
+        double averageWaitMillis = processedDelta > 0
+            ? (double) (totalWaitMillis - lastTotalWaitMillis) / processedDelta : 0.0;
+
+        lastSampleNanos = now;
+        lastProcessedTasks = processedTasks;
+        lastTotalWaitMillis = totalWaitMillis;
+
+        boolean underPressure = queueDepth >= configuration.getScaleUpQueueDepth()
+            || averageWaitMillis > configuration.getTargetQueueWaitMillis();
+        boolean idle = queueDepth <= configuration.getScaleDownQueueDepth()
+            && averageWaitMillis <= configuration.getTargetQueueWaitMillis() / 2.0;
+        if (underPressure) {
+            pressureSamples++;
+            idleSamples = 0;
+        } else if (idle) {
+            idleSamples++;
+            pressureSamples = 0;
+        } else {
+            pressureSamples = 0;
+            idleSamples = 0;
+        }
+
+        logger.debug("Autoscaler sample: depth={}, avgWait={}ms, throughput={}/s, pressure={}, idle={}",
+                     queueDepth, String.format("%.1f", averageWaitMillis), String.format("%.1f", throughput),
+                     pressureSamples, idleSamples);
+
+        if (hasResized && now - lastResizeNanos < TimeUnit.MILLISECONDS.toNanos(configuration.getCooldownMillis())) {
+            return;
+        }
+
+        int currentSize = resizer.getCurrentPoolSize();
+        if (pressureSamples >= configuration.getScaleUpSamples()) {
+            pressureSamples = 0;
+            scaleUp(currentSize, queueDepth, averageWaitMillis, throughput);
+        } else if (idleSamples >= configuration.getScaleDownSamples()) {
+            idleSamples = 0;
+            scaleDown(currentSize, queueDepth, averageWaitMillis);
+        }
+    }
+
+    private void scaleUp(int currentSize, int queueDepth, double averageWaitMillis, double throughput) {
+        String pressure = String.format("queue depth %d, avg wait %.1fms", queueDepth, averageWaitMillis);
+        double cpuLoad = cpuLoadSupplier.getAsDouble();
+
+        if (currentSize >= configuration.getMaxPoolSize()) {
+            metricsCollector.recordScalingDecision(currentSize, currentSize, pressure + "; at maximum pool size");
+            return;
+        }
+        if (cpuLoad >= configuration.getMaxCpuLoad()) {
+            metricsCollector.recordScalingDecision(currentSize, currentSize,
+                String.format("%s; CPU load %.2f at or above %.2f", pressure, cpuLoad, configuration.getMaxCpuLoad()));
+            return;
+        }
+        if (lastScaleUpThroughput >= 0
+                && throughput < lastScaleUpThroughput * (1 + configuration.getMinThroughputGain())) {
+            metricsCollector.recordScalingDecision(currentSize, currentSize,
+                String.format("%s; throughput %.1f/s did not improve on %.1f/s after last scale-up",
+                              pressure, throughput, lastScaleUpThroughput));
+            return;
+        }
+
+        int newSize = Math.min(configuration.getMaxPoolSize(), currentSize + configuration.getScaleStep());
+        resize(currentSize, newSize, pressure);
+        lastScaleUpThroughput = throughput;
+    }
+
+    private void scaleDown(int currentSize, int queueDepth, double averageWaitMillis) {
+        if (currentSize <= configuration.getMinPoolSize()) {
+            return;
+        }
+        int newSize = Math.max(configuration.getMinPoolSize(), currentSize - configuration.getScaleStep());
+        resize(currentSize, newSize,
+               String.format("idle: queue depth %d, avg wait %.1fms", queueDepth, averageWaitMillis));
+        lastScaleUpThroughput = -1;
+    }
+
+    private void resize(int currentSize, int newSize, String reason) {
+        resizer.resizePool(newSize);
+        lastResizeNanos = System.nanoTime();
+        hasResized = true;
+        metricsCollector.recordScalingDecision(currentSize, newSize, reason);
+        logger.info("Autoscaler resized pool from {} to {}: {}", currentSize, newSize, reason);
+    }
+
+    /**
+     * Reads the process CPU load from the platform MXBean.
+     *
+     * @return the process CPU load in [0, 1], or -1 if unavailable
+     */
+    private static double processCpuLoad() {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuLoad();
+        }
+        return -1;
+    }
+}
@@ -4,11 +4,9 @@ import com.example.threadcontroller.model.ThreadController;
 import com.example.threadcontroller.model.ThreadPoolConfiguration;
 import com.example.threadcontroller.model.ThreadType;
 import com.example.threadcontroller.util.Logger;
+import com.example.threadcontroller.util.MetricsCollector;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manager for thread pool operations.
@@ -17,6 +15,7 @@ public class ThreadPoolManager {
     private static final Logger logger = new Logger(ThreadPoolManager.class);
 
     private ThreadController controller;
+    private final MetricsCollector metricsCollector;
     private ExecutorService executorService;
     private final Object lock = new Object();
 
@@ -26,7 +25,18 @@ public class ThreadPoolManager {
      * @param controller the thread controller
      */
     public ThreadPoolManager(ThreadController controller) {
+        this(controller, new MetricsCollector());
+    }
+
+    /**
+     * Constructor with metrics collector.
+     *
+     * @param controller the thread controller
+     * @param metricsCollector the metrics collector for pool activity
+     */
+    public ThreadPoolManager(ThreadController controller, MetricsCollector metricsCollector) {
         this.controller = controller;
+        this.metricsCollector = metricsCollector;
         logger.info("Created ThreadPoolManager for controller: {}", controller);
     }
 
@@ -43,47 +53,16 @@ public class ThreadPoolManager {
             ThreadType threadType = config.getThreadType();
             int corePoolSize = config.getCorePoolSize();
 
+            executorService = ExecutorFactory.createExecutor(config, metricsCollector);
             if (threadType == ThreadType.VIRTUAL) {
-                executorService = createVirtualThreadExecutor();
                 logger.info("Initialized virtual thread executor with core pool size: {}", corePoolSize);
             } else {
-                executorService = createPlatformThreadExecutor(corePoolSize);
-                logger.info("Initialized platform thread executor with core pool size: {}", corePoolSize);
+                logger.info("Initialized {} platform thread executor with core pool size: {}",
+                           config.getExecutorEngine(), corePoolSize);
             }
         }
     }
 
-    /**
-     * Creates a virtual thread executor.
-     *
-     * @return the virtual thread executor
-     */
-    private ExecutorService createVirtualThreadExecutor() {
-        ThreadFactory threadFactory = Thread.ofVirtual().name("virtual-thread-", 0).factory();
-        return Executors.newThreadPerTaskExecutor(threadFactory);
-    }
-
-    /**
-     * Creates a platform thread executor.
-     *
-     * @param poolSize the pool size
-     * @return the platform thread executor
-     */
-    private ExecutorService createPlatformThreadExecutor(int poolSize) {
-        ThreadFactory threadFactory = new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger(0);
-
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread thread = new Thread(r);
-                thread.setName("platform-thread-" + counter.getAndIncrement());
-                thread.setDaemon(false);
-                return thread;
-            }
-        };
-        return Executors.newFixedThreadPool(poolSize, threadFactory);
-    }
-
     /**
      * Gets the executor service.
      *
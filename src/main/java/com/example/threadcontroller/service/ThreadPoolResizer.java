@@ -6,6 +6,7 @@ import com.example.threadcontroller.model.ThreadType;
 import com.example.threadcontroller.util.Logger;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -48,21 +49,55 @@ public class ThreadPoolResizer {
         ThreadPoolConfiguration config = controller.getConfiguration();
         int oldCoreSize = config.getCorePoolSize();
         int oldMaxSize = config.getMaximumPoolSize();
-
-        // Update configuration
-        config.setCorePoolSize(newSize);
-        config.setMaximumPoolSize(newSize);
+        // The elastic pool grows and reaps between core and max, so only its maximum is resized
+        int newCoreSize = isElastic() ? Math.min(oldCoreSize, newSize) : newSize;
+
+        // Update configuration; order matters because core must never exceed max
+        if (newSize > oldMaxSize) {
+            config.setMaximumPoolSize(newSize);
+            config.setCorePoolSize(newCoreSize);
+        } else {
+            config.setCorePoolSize(newCoreSize);
+            config.setMaximumPoolSize(newSize);
+        }
         controller.setConfiguration(config);
 
-        // For platform threads, we may need to adjust the executor
+        applyToExecutor(newCoreSize, newSize);
+
+        logger.info("Resized thread pool from core={}, max={} to core={}, max={}",
+                   oldCoreSize, oldMaxSize, newCoreSize, newSize);
+    }
+
+    /**
+     * Applies the new size to the running executor in place. Growing takes effect immediately;
+     * when shrinking, busy workers finish their current task and then retire.
+     *
+     * @param newCoreSize the new core pool size
+     * @param newSize the new pool size
+     */
+    private void applyToExecutor(int newCoreSize, int newSize) {
         if (controller.getThreadType() == ThreadType.PLATFORM && executorService instanceof ThreadPoolExecutor) {
             ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
-            threadPoolExecutor.setCorePoolSize(newSize);
-            threadPoolExecutor.setMaximumPoolSize(newSize);
+            if (newSize > threadPoolExecutor.getMaximumPoolSize()) {
+                threadPoolExecutor.setMaximumPoolSize(newSize);
+                threadPoolExecutor.setCorePoolSize(newCoreSize);
+            } else {
+                threadPoolExecutor.setCorePoolSize(newCoreSize);
+                threadPoolExecutor.setMaximumPoolSize(newSize);
+            }
+        } else if (executorService instanceof ForkJoinPool) {
+            ((ForkJoinPool) executorService).setParallelism(newSize);
+        } else if (executorService instanceof BoundedVirtualThreadExecutor) {
+            ((BoundedVirtualThreadExecutor) executorService).setConcurrencyLimit(newSize);
+        } else if (executorService instanceof ShardedExecutor) {
+            // Keys are routed by hash over the shard count, so shards cannot be added in place
+            logger.warn("Sharded executor keeps its {} shards; new size {} applies after restart",
+                       ((ShardedExecutor) executorService).getShardCount(), newSize);
         }
+    }
 
-        logger.info("Resized thread pool from core={}, max={} to core={}, max={}",
-                   oldCoreSize, oldMaxSize, newSize, newSize);
+    private boolean isElastic() {
+        return executorService instanceof ElasticThreadPoolExecutor;
     }
 
     /**
@@ -75,8 +110,7 @@ public class ThreadPoolResizer {
             throw new IllegalArgumentException("Increment must be positive");
         }
 
-        ThreadPoolConfiguration config = controller.getConfiguration();
-        int currentSize = config.getCorePoolSize();
+        int currentSize = getCurrentPoolSize();
         int newSize = currentSize + increment;
 
         resizePool(newSize);
@@ -93,8 +127,7 @@ public class ThreadPoolResizer {
             throw new IllegalArgumentException("Decrement must be positive");
         }
 
-        ThreadPoolConfiguration config = controller.getConfiguration();
-        int currentSize = config.getCorePoolSize();
+        int currentSize = getCurrentPoolSize();
         int newSize = Math.max(1, currentSize - decrement); // Ensure at least 1 thread
 
         resizePool(newSize);
@@ -102,11 +135,12 @@ public class ThreadPoolResizer {
     }
 
     /**
-     * Gets the current pool size.
+     * Gets the current pool size. For the elastic pool this is its maximum size.
      *
      * @return the current pool size
      */
     public int getCurrentPoolSize() {
-        return controller.getConfiguration().getCorePoolSize();
+        ThreadPoolConfiguration config = controller.getConfiguration();
+        return isElastic() ? config.getMaximumPoolSize() : config.getCorePoolSize();
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.threadcontroller.service;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A task waiting in a {@link HierarchicalTimingWheel}.
+ *
+ * <p>The handle doubles as the node of its bucket's linked list, so a pending timer costs one
+ * object besides the task itself, and cancelling it unlinks it in constant time.</p>
+ */
+public class TimerHandle {
+    static final int PENDING = 0;
+    static final int CANCELLED = 1;
+    static final int EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<TimerHandle> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(TimerHandle.class, "state");
+
+    private final HierarchicalTimingWheel wheel;
+    private final Runnable task;
+    private final long deadlineTick;
+    private volatile int state;
+
+    // Bucket links, only touched by the wheel's ticker thread
+    TimerHandle prev;
+    TimerHandle next;
+    Object bucket;
+
+    TimerHandle(HierarchicalTimingWheel wheel, Runnable task, long deadlineTick) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadlineTick = deadlineTick;
+        this.state = PENDING;
+    }
+
+    /**
+     * Cancels the timer if it has not fired yet.
+     *
+     * @return true if the timer was cancelled, false if it had already fired or been cancelled
+     */
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+            return false;
+        }
+        wheel.cancelled(this);
+        return true;
+    }
+
+    /**
+     * Checks whether the timer was cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    /**
+     * Checks whether the timer has fired and its task was handed to the executor.
+     *
+     * @return true if expired
+     */
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+
+    boolean expire() {
+        return STATE.compareAndSet(this, PENDING, EXPIRED);
+    }
+
+    boolean isPending() {
+        return state == PENDING;
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+
+    long getDeadlineTick() {
+        return deadlineTick;
+    }
+}
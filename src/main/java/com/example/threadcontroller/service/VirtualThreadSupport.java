@@ -1,5 +1,6 @@
 package com.example.threadcontroller.service;
 
+import com.example.threadcontroller.model.OverloadPolicy;
 import com.example.threadcontroller.util.Logger;
 
 import java.util.concurrent.ExecutorService;
@@ -47,6 +48,44 @@ public class VirtualThreadSupport {
         return executor;
     }
 
+    /**
+     * Creates a virtual thread executor that caps the number of in-flight tasks.
+     *
+     * @param namePrefix the prefix for thread names
+     * @param concurrencyLimit the maximum number of tasks allowed to run at once
+     * @return the bounded virtual thread executor
+     */
+    public static BoundedVirtualThreadExecutor createBoundedVirtualThreadExecutor(String namePrefix,
+                                                                                  int concurrencyLimit) {
+        if (!isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported in this JVM");
+        }
+
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(namePrefix, concurrencyLimit);
+        logger.info("Created bounded virtual thread executor with name prefix: {}", namePrefix);
+        return executor;
+    }
+
+    /**
+     * Creates a virtual thread executor whose concurrency limit adapts to task latency.
+     *
+     * @param namePrefix the prefix for thread names
+     * @param limiter the limiter that decides the concurrency limit
+     * @param overloadPolicy what to do with tasks that arrive while the limit is reached
+     * @return the adaptive virtual thread executor
+     */
+    public static BoundedVirtualThreadExecutor createAdaptiveVirtualThreadExecutor(String namePrefix,
+                                                                                   AdaptiveConcurrencyLimiter limiter,
+                                                                                   OverloadPolicy overloadPolicy) {
+        if (!isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported in this JVM");
+        }
+
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(namePrefix, limiter, overloadPolicy);
+        logger.info("Created adaptive virtual thread executor with name prefix: {}", namePrefix);
+        return executor;
+    }
+
     /**
      * Creates a virtual thread with the specified name and task.
      *
@@ -1,7 +1,10 @@
 package com.example.threadcontroller.util;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -10,12 +13,35 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class MetricsCollector {
     private static final Logger logger = new Logger(MetricsCollector.class);
+    private static final int MAX_SCALING_DECISIONS = 100;
 
     private final AtomicInteger submittedTasks = new AtomicInteger(0);
     private final AtomicInteger completedTasks = new AtomicInteger(0);
     private final AtomicInteger failedTasks = new AtomicInteger(0);
     private final AtomicLong totalExecutionTime = new AtomicLong(0);
+    private final AtomicInteger spawnedThreads = new AtomicInteger(0);
+    private final AtomicInteger reapedThreads = new AtomicInteger(0);
     private final ConcurrentHashMap<String, AtomicInteger> taskTypeCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger shedTasks = new AtomicInteger(0);
+    private final ConcurrentHashMap<String, AtomicInteger> shedReasonCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger spilledTasks = new AtomicInteger(0);
+    private final AtomicLong spilledBytes = new AtomicLong(0);
+    private final AtomicInteger refilledTasks = new AtomicInteger(0);
+    private final AtomicLong totalRefillLagMillis = new AtomicLong(0);
+    private final AtomicLong maxRefillLagMillis = new AtomicLong(0);
+    private final AtomicLong imbalanceSamples = new AtomicLong(0);
+    private final AtomicLong totalImbalance = new AtomicLong(0);
+    private final AtomicInteger maxImbalance = new AtomicInteger(0);
+    private final ConcurrentHashMap<String, AtomicLong> tenantDequeuedTasks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> tenantWaitMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger lifoSwitches = new AtomicInteger(0);
+    private final AtomicInteger fifoSwitches = new AtomicInteger(0);
+    private final AtomicLong totalLifoMillis = new AtomicLong(0);
+    private volatile Instant lastModeSwitchTime;
+    private final AtomicInteger scaleUps = new AtomicInteger(0);
+    private final AtomicInteger scaleDowns = new AtomicInteger(0);
+    private final AtomicInteger scaleHolds = new AtomicInteger(0);
+    private final ConcurrentLinkedDeque<String> scalingDecisions = new ConcurrentLinkedDeque<>();
 
     private volatile Instant startTime;
 
@@ -57,6 +83,116 @@ public class MetricsCollector {
         logger.debug("Recorded task failure. Total failed: {}", failedTasks.get());
     }
 
+    /**
+     * Records a task that was dropped without running.
+     *
+     * @param reason the reason the task was shed
+     */
+    public void recordTaskShed(String reason) {
+        shedTasks.incrementAndGet();
+        shedReasonCounters.computeIfAbsent(reason, k -> new AtomicInteger(0)).incrementAndGet();
+        logger.debug("Recorded shed task. Reason: {}, Total shed: {}", reason, shedTasks.get());
+    }
+
+    /**
+     * Records a worker thread being started by an elastic pool.
+     */
+    public void recordThreadSpawned() {
+        spawnedThreads.incrementAndGet();
+        logger.debug("Recorded thread spawn. Total spawned: {}", spawnedThreads.get());
+    }
+
+    /**
+     * Records an idle worker thread being reaped by an elastic pool.
+     */
+    public void recordThreadReaped() {
+        reapedThreads.incrementAndGet();
+        logger.debug("Recorded thread reap. Total reaped: {}", reapedThreads.get());
+    }
+
+    /**
+     * Records a task written to the overflow store because the in-memory queue was full.
+     *
+     * @param bytes the size of the spilled record
+     */
+    public void recordTaskSpilled(int bytes) {
+        spilledTasks.incrementAndGet();
+        spilledBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Records a spilled task moved back into the in-memory queue.
+     *
+     * @param lagMillis the time the task spent in the overflow store
+     */
+    public void recordTaskRefilled(long lagMillis) {
+        refilledTasks.incrementAndGet();
+        totalRefillLagMillis.addAndGet(lagMillis);
+        maxRefillLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    /**
+     * Records a tenant's task leaving the queue to run.
+     *
+     * @param tenant the tenant the task belongs to
+     * @param waitMillis the time the task spent queued
+     */
+    public void recordTenantDequeue(String tenant, long waitMillis) {
+        // Wait first, so a reader that sees the count also finds the wait entry
+        tenantWaitMillis.computeIfAbsent(tenant, k -> new AtomicLong(0)).addAndGet(waitMillis);
+        tenantDequeuedTasks.computeIfAbsent(tenant, k -> new AtomicLong(0)).incrementAndGet();
+    }
+
+    /**
+     * Records an adaptive queue switching its dequeue order.
+     *
+     * @param toLifo true if the queue switched to LIFO, false if it switched back to FIFO
+     * @param previousModeMillis the time spent in the mode being left
+     */
+    public void recordQueueModeSwitch(boolean toLifo, long previousModeMillis) {
+        if (toLifo) {
+            lifoSwitches.incrementAndGet();
+        } else {
+            fifoSwitches.incrementAndGet();
+            totalLifoMillis.addAndGet(previousModeMillis);
+        }
+        lastModeSwitchTime = Instant.now();
+        logger.debug("Recorded queue switch to {} after {}ms", toLifo ? "LIFO" : "FIFO", previousModeMillis);
+    }
+
+    /**
+     * Records a sample of the spread between the longest and shortest worker queue.
+     *
+     * @param imbalance the difference between the longest and shortest queue
+     */
+    public void recordQueueImbalance(int imbalance) {
+        imbalanceSamples.incrementAndGet();
+        totalImbalance.addAndGet(imbalance);
+        maxImbalance.accumulateAndGet(imbalance, Math::max);
+    }
+
+    /**
+     * Records an autoscaler decision. A decision that keeps the size unchanged is recorded as a hold.
+     *
+     * @param fromSize the pool size before the decision
+     * @param toSize the pool size after the decision
+     * @param reason the reason for the decision
+     */
+    public void recordScalingDecision(int fromSize, int toSize, String reason) {
+        if (toSize > fromSize) {
+            scaleUps.incrementAndGet();
+        } else if (toSize < fromSize) {
+            scaleDowns.incrementAndGet();
+        } else {
+            scaleHolds.incrementAndGet();
+        }
+        scalingDecisions.addLast(String.format("%s %d -> %d: %s", Instant.now(), fromSize, toSize, reason));
+        while (scalingDecisions.size() > MAX_SCALING_DECISIONS) {
+            scalingDecisions.pollFirst();
+        }
+        logger.debug("Recorded scaling decision {} -> {}: {}", fromSize, toSize, reason);
+    }
+
     /**
      * Gets the number of submitted tasks.
      *
@@ -84,6 +220,228 @@ public class MetricsCollector {
         return failedTasks.get();
     }
 
+    /**
+     * Gets the number of tasks dropped without running.
+     *
+     * @return the number of shed tasks
+     */
+    public int getShedTasks() {
+        return shedTasks.get();
+    }
+
+    /**
+     * Gets the number of tasks shed for a reason.
+     *
+     * @param reason the shed reason
+     * @return the number of tasks shed for that reason
+     */
+    public int getShedTasks(String reason) {
+        AtomicInteger counter = shedReasonCounters.get(reason);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Gets the number of tasks written to the overflow store.
+     *
+     * @return the number of spilled tasks
+     */
+    public int getSpilledTasks() {
+        return spilledTasks.get();
+    }
+
+    /**
+     * Gets the number of bytes written to the overflow store.
+     *
+     * @return the number of spilled bytes
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * Gets the number of spilled tasks moved back into the in-memory queue.
+     *
+     * @return the number of refilled tasks
+     */
+    public int getRefilledTasks() {
+        return refilledTasks.get();
+    }
+
+    /**
+     * Gets the average time refilled tasks spent in the overflow store.
+     *
+     * @return the average refill lag in milliseconds
+     */
+    public double getAverageRefillLagMillis() {
+        int refilled = refilledTasks.get();
+        if (refilled == 0) {
+            return 0.0;
+        }
+        return (double) totalRefillLagMillis.get() / refilled;
+    }
+
+    /**
+     * Gets the longest time a refilled task spent in the overflow store.
+     *
+     * @return the maximum refill lag in milliseconds
+     */
+    public long getMaxRefillLagMillis() {
+        return maxRefillLagMillis.get();
+    }
+
+    /**
+     * Gets the average sampled queue imbalance.
+     *
+     * @return the average queue imbalance, or 0 if nothing was sampled
+     */
+    public double getAverageQueueImbalance() {
+        long samples = imbalanceSamples.get();
+        if (samples == 0) {
+            return 0.0;
+        }
+        return (double) totalImbalance.get() / samples;
+    }
+
+    /**
+     * Gets the largest sampled queue imbalance.
+     *
+     * @return the maximum queue imbalance
+     */
+    public int getMaxQueueImbalance() {
+        return maxImbalance.get();
+    }
+
+    /**
+     * Gets the number of spawned worker threads.
+     *
+     * @return the number of spawned worker threads
+     */
+    public int getSpawnedThreads() {
+        return spawnedThreads.get();
+    }
+
+    /**
+     * Gets the number of reaped worker threads.
+     *
+     * @return the number of reaped worker threads
+     */
+    public int getReapedThreads() {
+        return reapedThreads.get();
+    }
+
+    /**
+     * Gets the number of autoscaler scale-up decisions.
+     *
+     * @return the number of scale-ups
+     */
+    public int getScaleUps() {
+        return scaleUps.get();
+    }
+
+    /**
+     * Gets the number of autoscaler scale-down decisions.
+     *
+     * @return the number of scale-downs
+     */
+    public int getScaleDowns() {
+        return scaleDowns.get();
+    }
+
+    /**
+     * Gets the number of autoscaler decisions that held the size despite pressure.
+     *
+     * @return the number of holds
+     */
+    public int getScaleHolds() {
+        return scaleHolds.get();
+    }
+
+    /**
+     * Gets the most recent autoscaler decisions, oldest first.
+     *
+     * @return the recent scaling decisions
+     */
+    public List<String> getRecentScalingDecisions() {
+        return new ArrayList<>(scalingDecisions);
+    }
+
+    /**
+     * Gets the number of a tenant's tasks that left the queue to run.
+     *
+     * @param tenant the tenant
+     * @return the tenant's dequeued task count
+     */
+    public long getTenantDequeuedTasks(String tenant) {
+        AtomicLong counter = tenantDequeuedTasks.get(tenant);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Gets a tenant's dequeue rate since the collector was started or reset.
+     *
+     * @param tenant the tenant
+     * @return the tenant's throughput in tasks per second
+     */
+    public double getTenantThroughput(String tenant) {
+        long elapsedMillis = java.time.Duration.between(startTime, Instant.now()).toMillis();
+        if (elapsedMillis == 0) {
+            return 0.0;
+        }
+        return getTenantDequeuedTasks(tenant) * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Gets the average time a tenant's tasks spent queued.
+     *
+     * @param tenant the tenant
+     * @return the average wait time in milliseconds
+     */
+    public double getTenantAverageWaitMillis(String tenant) {
+        long dequeued = getTenantDequeuedTasks(tenant);
+        // reset() may clear the wait total between the two reads
+        AtomicLong waitMillis = tenantWaitMillis.get(tenant);
+        if (dequeued == 0 || waitMillis == null) {
+            return 0.0;
+        }
+        return (double) waitMillis.get() / dequeued;
+    }
+
+    /**
+     * Gets the number of times an adaptive queue switched to LIFO.
+     *
+     * @return the LIFO switch count
+     */
+    public int getLifoSwitches() {
+        return lifoSwitches.get();
+    }
+
+    /**
+     * Gets the number of times an adaptive queue switched back to FIFO.
+     *
+     * @return the FIFO switch count
+     */
+    public int getFifoSwitches() {
+        return fifoSwitches.get();
+    }
+
+    /**
+     * Gets the total time adaptive queues spent in completed LIFO periods.
+     *
+     * @return the LIFO time in milliseconds
+     */
+    public long getTotalLifoMillis() {
+        return totalLifoMillis.get();
+    }
+
+    /**
+     * Gets the time of the most recent queue mode switch.
+     *
+     * @return the switch time, or null if no switch happened
+     */
+    public Instant getLastModeSwitchTime() {
+        return lastModeSwitchTime;
+    }
+
     /**
      * Gets the average execution time.
      *
@@ -119,6 +477,31 @@ public class MetricsCollector {
         report.append("Completed tasks: ").append(completedTasks.get()).append("\n");
         report.append("Failed tasks: ").append(failedTasks.get()).append("\n");
         report.append("Average execution time: ").append(String.format("%.2f", getAverageExecutionTime())).append(" ms\n");
+        report.append("Shed tasks: ").append(shedTasks.get()).append("\n");
+        shedReasonCounters.forEach((reason, counter) -> {
+            report.append("  ").append(reason).append(": ").append(counter.get()).append("\n");
+        });
+        report.append("Spawned threads: ").append(spawnedThreads.get()).append("\n");
+        report.append("Reaped threads: ").append(reapedThreads.get()).append("\n");
+        report.append("Spilled tasks: ").append(spilledTasks.get())
+              .append(" (").append(spilledBytes.get()).append(" bytes), refilled: ").append(refilledTasks.get())
+              .append(", refill lag avg=").append(String.format("%.2f", getAverageRefillLagMillis()))
+              .append(" ms, max=").append(maxRefillLagMillis.get()).append(" ms\n");
+        report.append("Queue imbalance: avg=").append(String.format("%.2f", getAverageQueueImbalance()))
+              .append(", max=").append(maxImbalance.get()).append("\n");
+        tenantDequeuedTasks.forEach((tenant, counter) -> {
+            report.append("Tenant ").append(tenant).append(": dequeued=").append(counter.get())
+                  .append(", throughput=").append(String.format("%.2f", getTenantThroughput(tenant)))
+                  .append("/s, avg wait=").append(String.format("%.2f", getTenantAverageWaitMillis(tenant)))
+                  .append(" ms\n");
+        });
+        report.append("Queue mode switches: to LIFO=").append(lifoSwitches.get())
+              .append(", to FIFO=").append(fifoSwitches.get())
+              .append(", time in LIFO=").append(totalLifoMillis.get()).append(" ms")
+              .append(", last switch=").append(lastModeSwitchTime).append("\n");
+        report.append("Scaling decisions: up=").append(scaleUps.get())
+              .append(", down=").append(scaleDowns.get())
+              .append(", hold=").append(scaleHolds.get()).append("\n");
         report.append("Task type distribution:\n");
 
         taskTypeCounters.forEach((type, counter) -> {
@@ -136,6 +519,28 @@ public class MetricsCollector {
         completedTasks.set(0);
         failedTasks.set(0);
         totalExecutionTime.set(0);
+        shedTasks.set(0);
+        shedReasonCounters.clear();
+        spawnedThreads.set(0);
+        reapedThreads.set(0);
+        spilledTasks.set(0);
+        spilledBytes.set(0);
+        refilledTasks.set(0);
+        totalRefillLagMillis.set(0);
+        maxRefillLagMillis.set(0);
+        imbalanceSamples.set(0);
+        totalImbalance.set(0);
+        maxImbalance.set(0);
+        tenantDequeuedTasks.clear();
+        lifoSwitches.set(0);
+        fifoSwitches.set(0);
+        totalLifoMillis.set(0);
+        lastModeSwitchTime = null;
+        tenantWaitMillis.clear();
+        scaleUps.set(0);
+        scaleDowns.set(0);
+        scaleHolds.set(0);
+        scalingDecisions.clear();
         taskTypeCounters.clear();
         startTime = Instant.now();
         logger.info("Metrics reset");
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Unit tests for thread controller core models.
@@ -103,6 +106,174 @@ public class ThreadControllerModelTest {
         assertNull(task.getException());
     }
 
+    @Test
+    void testTaskLifecycleDurations() {
+        assertEquals(-1, task.getQueueWaitNanos());
+        assertEquals(-1, task.getExecutionNanos());
+        assertEquals(-1, task.getEndToEndNanos());
+
+        long submitted = task.getSubmissionTimeNanos();
+        task.setStartTimeNanos(submitted + 1_000);
+        task.setCompletionTimeNanos(submitted + 5_000);
+        assertEquals(1_000, task.getQueueWaitNanos());
+        assertEquals(4_000, task.getExecutionNanos());
+        assertEquals(5_000, task.getEndToEndNanos());
+
+        // Instants are derived from the monotonic stamps and convert back exactly
+        Instant start = task.getStartTime();
+        assertEquals(1_000, Duration.between(task.getSubmissionTime(), start).toNanos());
+        task.setStartTime(start);
+        assertEquals(submitted + 1_000, task.getStartTimeNanos());
+        task.setStartTime(null);
+        assertNull(task.getStartTime());
+        assertEquals(-1, task.getQueueWaitNanos());
+    }
+
+    @Test
+    void testConcurrentTryTransition() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] racers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            racers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (task.tryTransition(TaskStatus.RUNNING)) {
+                    winners.incrementAndGet();
+                }
+            });
+            racers[i].start();
+        }
+        start.countDown();
+        for (Thread racer : racers) {
+            racer.join();
+        }
+
+        // Exactly one racer claims the task, and invalid moves report false instead of throwing
+        assertEquals(1, winners.get());
+        assertEquals(TaskStatus.RUNNING, task.getStatus());
+        assertFalse(task.tryTransition(TaskStatus.PENDING));
+        assertFalse(task.tryTransition(null));
+        assertTrue(task.tryTransition(TaskStatus.FAILED));
+        assertFalse(task.tryTransition(TaskStatus.COMPLETED));
+        assertEquals(TaskStatus.FAILED, task.getStatus());
+    }
+
+    @Test
+    void testOnlyWinnerWritesOutcome() throws InterruptedException {
+        task.setStatus(TaskStatus.RUNNING);
+        int threads = 8;
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] racers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int racer = i;
+            racers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                boolean won = racer % 2 == 0
+                    ? task.tryComplete("result-" + racer)
+                    : task.tryFail(new IllegalStateException("failure-" + racer));
+                if (won) {
+                    winners.incrementAndGet();
+                }
+            });
+            racers[i].start();
+        }
+        start.countDown();
+        for (Thread racer : racers) {
+            racer.join();
+        }
+
+        // The losers leave the winner's outcome alone
+        assertEquals(1, winners.get());
+        if (task.getStatus() == TaskStatus.COMPLETED) {
+            assertNotNull(task.getResult());
+            assertNull(task.getException());
+        } else {
+            assertEquals(TaskStatus.FAILED, task.getStatus());
+            assertNull(task.getResult());
+            assertNotNull(task.getException());
+        }
+        assertTrue(task.getCompletionTimeNanos() > 0);
+        assertFalse(task.tryComplete("late"));
+        assertFalse(task.tryFail(new IllegalStateException("late")));
+        assertFalse(task.tryTransition(TaskStatus.FAILED));
+    }
+
+    @Test
+    void testSequentialTaskIds() throws InterruptedException {
+        Task.setDefaultIdMode(TaskIdMode.SEQUENTIAL);
+        try {
+            Task first = new Task();
+            Task second = new Task();
+            assertTrue(first.hasNumericId());
+            assertTrue(second.getNumericId() > first.getNumericId());
+            assertEquals(Long.toString(first.getNumericId()), first.getId());
+            assertNotEquals(first, second);
+            assertEquals(first, new Task(first.getNumericId()));
+            assertEquals(first.hashCode(), new Task(first.getNumericId()).hashCode());
+
+            // Threads draw from separate blocks, so IDs never collide
+            long[] other = new long[1];
+            Thread thread = new Thread(() -> other[0] = new Task().getNumericId());
+            thread.start();
+            thread.join();
+            assertNotEquals(first.getNumericId(), other[0]);
+            assertNotEquals(second.getNumericId(), other[0]);
+        } finally {
+            Task.setDefaultIdMode(TaskIdMode.UUID);
+        }
+        assertFalse(new Task().hasNumericId());
+        assertThrows(IllegalArgumentException.class, () -> new Task(0L));
+    }
+
+    @Test
+    void testNumericStringIdsMatchNumericIds() {
+        Task fromString = new Task("42");
+        assertTrue(fromString.hasNumericId());
+        assertEquals(new Task(42L), fromString);
+        assertEquals(new Task(42L).hashCode(), fromString.hashCode());
+        assertEquals("42", fromString.getId());
+
+        Task renamed = new Task("other");
+        renamed.setId("42");
+        assertEquals(new Task(42L), renamed);
+
+        // Only the canonical decimal form of a positive long is numeric
+        assertEquals(0, Task.parseNumericId("042"));
+        assertEquals(0, Task.parseNumericId("-42"));
+        assertEquals(0, Task.parseNumericId("+42"));
+        assertEquals(0, Task.parseNumericId("0"));
+        assertEquals(0, Task.parseNumericId("9223372036854775808"));
+        assertEquals(Long.MAX_VALUE, Task.parseNumericId("9223372036854775807"));
+        assertNotEquals(new Task(42L), new Task("042"));
+    }
+
+    @Test
+    void testGeneratedIdsSkipSuppliedNumericIds() {
+        // An ID inside the block this thread has already reserved
+        long reserved = TaskIdGenerator.nextId() + 1;
+        Task supplied = new Task(Long.toString(reserved));
+        assertTrue(TaskIdGenerator.nextId() > reserved);
+
+        // An ID beyond every reserved block
+        long ahead = TaskIdGenerator.nextId() + 3000;
+        new Task(ahead);
+        for (int i = 0; i < 5000; i++) {
+            long generated = TaskIdGenerator.nextId();
+            assertNotEquals(ahead, generated);
+            assertNotEquals(supplied.getNumericId(), generated);
+        }
+    }
+
     @Test
     void testTaskStateTransitions() {
         // PENDING -> RUNNING
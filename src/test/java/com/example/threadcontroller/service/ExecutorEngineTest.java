@@ -0,0 +1,570 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.AutoscalerConfiguration;
+import com.example.threadcontroller.model.ExecutorEngine;
+import com.example.threadcontroller.model.OverloadPolicy;
+import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.ThreadController;
+import com.example.threadcontroller.model.ThreadPoolConfiguration;
+import com.example.threadcontroller.model.ThreadType;
+import com.example.threadcontroller.model.VirtualThreadMode;
+import com.example.threadcontroller.util.MetricsCollector;
+import com.example.threadcontroller.util.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for the selectable execution engines.
+ */
+public class ExecutorEngineTest {
+
+    private ThreadControllerService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private ThreadControllerService createService(ExecutorEngine engine, int poolSize) {
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration();
+        config.setCorePoolSize(poolSize);
+        config.setMaximumPoolSize(poolSize);
+        config.setThreadType(ThreadType.PLATFORM);
+        config.setExecutorEngine(engine);
+        return new ThreadControllerService(config);
+    }
+
+    @Test
+    void testDefaultEngineIsFixed() {
+        assertEquals(ExecutorEngine.FIXED, new ThreadPoolConfiguration().getExecutorEngine());
+    }
+
+    @Test
+    void testWorkStealingExecutorCreation() {
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration();
+        config.setCorePoolSize(4);
+        config.setExecutorEngine(ExecutorEngine.WORK_STEALING);
+
+        ExecutorService executor = ExecutorFactory.createExecutor(config);
+        try {
+            assertTrue(executor instanceof ForkJoinPool);
+            assertEquals(4, ((ForkJoinPool) executor).getParallelism());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testWorkStealingRunnableAndCallable() throws Exception {
+        service = createService(ExecutorEngine.WORK_STEALING, 4);
+
+        CompletableFuture<Void> runnableFuture = service.submitTask(TestUtils.createSimpleTask("ws-runnable", 10));
+        CompletableFuture<String> callableFuture =
+            service.submitTask(TestUtils.createSimpleCallable("ws-callable", 10, "stolen"));
+
+        runnableFuture.get(5, TimeUnit.SECONDS);
+        assertEquals("stolen", callableFuture.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testWorkStealingNestedSubmissions() throws Exception {
+        service = createService(ExecutorEngine.WORK_STEALING, 2);
+
+        CompletableFuture<Integer> outer = service.submitTask(() -> {
+            List<CompletableFuture<Integer>> children = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                children.add(service.submitTask(() -> value));
+            }
+            int sum = 0;
+            for (CompletableFuture<Integer> child : children) {
+                sum += child.get(5, TimeUnit.SECONDS);
+            }
+            return sum;
+        });
+
+        assertEquals(4950, outer.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBoundedVirtualThreadExecutorCapsConcurrency() throws Exception {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("bounded-test-", 3);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger peak = new AtomicInteger(0);
+        CountDownLatch done = new CountDownLatch(50);
+        try {
+            for (int i = 0; i < 50; i++) {
+                executor.execute(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(executor.getInFlightCount() <= 3);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(peak.get() <= 3);
+            assertEquals(0, executor.getWaitingCount());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBoundedVirtualThreadExecutorStartsOneThreadPerTask() throws Exception {
+        int tasks = 1000;
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("spawn-test-", 10000);
+        AtomicReference<String> lastThread = new AtomicReference<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                CountDownLatch done = new CountDownLatch(1);
+                executor.execute(() -> {
+                    lastThread.set(Thread.currentThread().getName());
+                    done.countDown();
+                });
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Threads are numbered from 0 in start order, so the last one bounds how many were started
+        long started = Long.parseLong(lastThread.get().substring("spawn-test-".length())) + 1;
+        assertTrue(started <= tasks, "started " + started + " threads for " + tasks + " tasks");
+    }
+
+    @Test
+    void testBoundedVirtualThreadExecutorResize() throws Exception {
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration(2, 2, 60, TimeUnit.SECONDS, ThreadType.VIRTUAL);
+        config.setVirtualThreadMode(VirtualThreadMode.BOUNDED);
+        ThreadController controller = new ThreadController(config);
+        ExecutorService executor = ExecutorFactory.createExecutor(config);
+        try {
+            assertTrue(executor instanceof BoundedVirtualThreadExecutor);
+            BoundedVirtualThreadExecutor bounded = (BoundedVirtualThreadExecutor) executor;
+            assertEquals(2, bounded.getConcurrencyLimit());
+
+            new ThreadPoolResizer(controller, executor).resizePool(8);
+            assertEquals(8, bounded.getConcurrencyLimit());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testResizeKeepsRunningExecutor() throws Exception {
+        service = createService(ExecutorEngine.FIXED, 2);
+        ExecutorService before = service.getExecutorService();
+
+        service.resizeThreadPool(6);
+        assertSame(before, service.getExecutorService());
+        assertEquals(6, ((ThreadPoolExecutor) before).getMaximumPoolSize());
+
+        service.resizeThreadPool(1);
+        assertSame(before, service.getExecutorService());
+        assertEquals(1, ((ThreadPoolExecutor) before).getCorePoolSize());
+        assertEquals(1, service.getController().getPoolSize());
+
+        CompletableFuture<String> future = service.submitTask(() -> "after-resize");
+        assertEquals("after-resize", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testResizeWorkStealingInPlace() {
+        service = createService(ExecutorEngine.WORK_STEALING, 2);
+        ExecutorService before = service.getExecutorService();
+
+        service.resizeThreadPool(5);
+        assertSame(before, service.getExecutorService());
+        assertEquals(5, ((ForkJoinPool) before).getParallelism());
+    }
+
+    @Test
+    void testElasticPoolGrowsBeforeQueueingAndReaps() throws Exception {
+        MetricsCollector metrics = new MetricsCollector();
+        ElasticThreadPoolExecutor executor =
+            new ElasticThreadPoolExecutor(1, 4, 100, TimeUnit.MILLISECONDS, metrics);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertEquals(4, executor.getPoolSize());
+            assertEquals(0, executor.getQueue().size());
+
+            executor.execute(() -> { });
+            assertEquals(1, executor.getQueue().size());
+
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (executor.getLiveThreadCount() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, executor.getLiveThreadCount());
+            assertEquals(4, metrics.getSpawnedThreads());
+            assertEquals(3, metrics.getReapedThreads());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testElasticResizeOnlyChangesMaximum() {
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration();
+        config.setCorePoolSize(2);
+        config.setMaximumPoolSize(4);
+        config.setExecutorEngine(ExecutorEngine.ELASTIC);
+        service = new ThreadControllerService(config);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) service.getExecutorService();
+
+        service.resizeThreadPool(8);
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(8, executor.getMaximumPoolSize());
+
+        service.resizeThreadPool(1);
+        assertEquals(1, executor.getCorePoolSize());
+        assertEquals(1, executor.getMaximumPoolSize());
+    }
+
+    @Test
+    void testAutoscalerScalesWithQueuePressure() throws Exception {
+        service = createService(ExecutorEngine.FIXED, 2);
+        ThreadPoolResizer resizer = new ThreadPoolResizer(service.getController(), service.getExecutorService());
+        TaskQueueManager queueManager = new TaskQueueManager();
+        MetricsCollector metrics = new MetricsCollector();
+
+        AutoscalerConfiguration autoscalerConfig = new AutoscalerConfiguration();
+        autoscalerConfig.setMinPoolSize(2);
+        autoscalerConfig.setMaxPoolSize(4);
+        autoscalerConfig.setScaleStep(2);
+        autoscalerConfig.setScaleUpQueueDepth(5);
+        autoscalerConfig.setScaleUpSamples(1);
+        autoscalerConfig.setScaleDownSamples(2);
+        autoscalerConfig.setCooldownMillis(0);
+        // Only queue depth drives this test; a slow machine must not turn the drained wait into pressure
+        autoscalerConfig.setTargetQueueWaitMillis(60_000);
+        ThreadPoolAutoscaler autoscaler =
+            new ThreadPoolAutoscaler(resizer, queueManager, metrics, autoscalerConfig, () -> 0.1);
+
+        for (int i = 0; i < 10; i++) {
+            queueManager.addTask(new Task());
+        }
+        autoscaler.sample();
+        assertEquals(4, service.getController().getPoolSize());
+        assertEquals(1, metrics.getScaleUps());
+
+        autoscaler.sample();
+        assertEquals(4, service.getController().getPoolSize());
+        assertEquals(1, metrics.getScaleHolds());
+
+        while (queueManager.pollTask(1, TimeUnit.MILLISECONDS) != null) {
+            // drain
+        }
+        autoscaler.sample();
+        autoscaler.sample();
+        assertEquals(2, service.getController().getPoolSize());
+        assertEquals(1, metrics.getScaleDowns());
+        assertEquals(3, metrics.getRecentScalingDecisions().size());
+    }
+
+    @Test
+    void testAdaptiveLimiterFollowsLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, TimeUnit.MILLISECONDS, 1);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(1_000_000, limiter.getLimit());
+        }
+        int grownLimit = limiter.getLimit();
+        assertTrue(grownLimit > 10, "limit should grow while latency is stable");
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(20_000_000, limiter.getLimit());
+        }
+        assertTrue(limiter.getLimit() < grownLimit, "limit should shrink when latency degrades");
+    }
+
+    @Test
+    void testAdaptiveExecutorRejectsAboveLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 4);
+        BoundedVirtualThreadExecutor executor =
+            new BoundedVirtualThreadExecutor("adaptive-test-", limiter, OverloadPolicy.REJECT);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            assertEquals(0, executor.getWaitingCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testAdaptiveLimiterSeesRealConcurrency() throws Exception {
+        AtomicInteger peakInFlight = new AtomicInteger();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 50) {
+            @Override
+            public void onSample(long rttNanos, int inFlight) {
+                peakInFlight.accumulateAndGet(inFlight, Math::max);
+                super.onSample(rttNanos, inFlight);
+            }
+        };
+        BoundedVirtualThreadExecutor executor =
+            new BoundedVirtualThreadExecutor("adaptive-sample-", limiter, OverloadPolicy.QUEUE);
+        try {
+            for (int i = 0; i < 200; i++) {
+                CountDownLatch done = new CountDownLatch(1);
+                executor.execute(done::countDown);
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // One task at a time, plus at most the previous worker on its way out
+        assertTrue(peakInFlight.get() <= 2, "limiter saw " + peakInFlight.get() + " in flight");
+    }
+
+    @Test
+    void testResizeAdaptiveExecutorBoundsLimiter() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, TimeUnit.MILLISECONDS, 1);
+        BoundedVirtualThreadExecutor executor =
+            new BoundedVirtualThreadExecutor("adaptive-resize-", limiter, OverloadPolicy.QUEUE);
+        try {
+            executor.setConcurrencyLimit(4);
+            assertEquals(4, limiter.getMaxLimit());
+            assertEquals(4, executor.getConcurrencyLimit());
+
+            for (int i = 0; i < 50; i++) {
+                limiter.onSample(1_000_000, limiter.getLimit());
+            }
+            assertEquals(4, limiter.getLimit(), "limiter must stay within the resized bound");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testShardedEngineRoutesKeysToOneShard() throws Exception {
+        service = createService(ExecutorEngine.SHARDED, 4);
+        assertTrue(service.getExecutorService() instanceof ShardedExecutor);
+        ShardedExecutor executor = (ShardedExecutor) service.getExecutorService();
+        assertEquals(4, executor.getShardCount());
+
+        int shard = executor.shardIndex("account-42");
+        assertEquals(shard, executor.shardIndex("account-42"));
+
+        CountDownLatch done = new CountDownLatch(200);
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            executor.execute("account-42", () -> {
+                completed.incrementAndGet();
+                done.countDown();
+            });
+            executor.execute(() -> {
+                completed.incrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(200, completed.get());
+
+        CompletableFuture<String> future = service.submitTask(() -> "sharded");
+        assertEquals("sharded", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testShardedIdleWorkersStealFromBusyShard() throws Exception {
+        ShardedExecutor executor = ShardedExecutor.start(4);
+        try {
+            CountDownLatch done = new CountDownLatch(40);
+            for (int i = 0; i < 40; i++) {
+                executor.execute("hot-key", () -> {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(executor.getStolenTaskCount() > 0, "idle shards should steal from the hot shard");
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    void testShardedIdleWorkersParkUntilWorkArrives() throws Exception {
+        ShardedExecutor executor = ShardedExecutor.start(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CountDownLatch blocking = new CountDownLatch(1);
+            executor.execute("busy-key", () -> {
+                blocking.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+            // The other worker has nothing to do, so it parks without a timeout
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!idleShardWorkerParked() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(idleShardWorkerParked(), "idle shard worker should park until woken");
+
+            // A task queued behind the busy worker wakes the parked one to steal it
+            CountDownLatch stolen = new CountDownLatch(1);
+            executor.execute("busy-key", stolen::countDown);
+            assertTrue(stolen.await(5, TimeUnit.SECONDS));
+            assertEquals(1, executor.getStolenTaskCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean idleShardWorkerParked() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("sharded-thread-") && thread.getState() == Thread.State.WAITING) {
+                for (StackTraceElement frame : thread.getStackTrace()) {
+                    if (frame.getMethodName().equals("idle")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void testShardedShutdownRunsEveryAcceptedTask() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            ShardedExecutor executor = ShardedExecutor.start(2);
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger ran = new AtomicInteger();
+            CountDownLatch go = new CountDownLatch(1);
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    try {
+                        while (true) {
+                            executor.execute(ran::incrementAndGet);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (RejectedExecutionException e) {
+                        // shut down
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+            go.countDown();
+            Thread.sleep(2);
+            executor.shutdown();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(accepted.get(), ran.get());
+        }
+    }
+
+    @Test
+    void testTwoChoicesKeepsQueuesBalanced() throws Exception {
+        MetricsCollector metrics = new MetricsCollector();
+        ShardedExecutor executor = ShardedExecutor.start(4, true, metrics);
+        assertTrue(executor.isTwoChoices());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Park every worker so submitted tasks stay queued
+            boolean[] blocked = new boolean[4];
+            for (int key = 0; !(blocked[0] && blocked[1] && blocked[2] && blocked[3]); key++) {
+                int shard = executor.shardIndex(key);
+                if (!blocked[shard]) {
+                    blocked[shard] = true;
+                    executor.execute(key, () -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            }
+            // Wait until every worker holds its blocker, so only the new tasks are queued
+            long deadline = System.currentTimeMillis() + 5000;
+            while (queuedTasks(executor) > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            metrics.reset();
+            for (int i = 0; i < 400; i++) {
+                executor.execute(() -> { });
+            }
+            assertTrue(executor.getQueueImbalance() <= 4,
+                "two choices should keep queues close, imbalance: " + executor.getQueueImbalance());
+            assertTrue(metrics.getMaxQueueImbalance() <= 4);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getStolenTaskCount());
+    }
+
+    private static int queuedTasks(ShardedExecutor executor) {
+        int queued = 0;
+        for (int i = 0; i < executor.getShardCount(); i++) {
+            queued += executor.getShardQueueSize(i);
+        }
+        return queued;
+    }
+}
@@ -127,6 +127,29 @@ public class ShutdownServiceTest {
         assertTrue(summary.contains("Failed: 1"));
     }
 
+    @Test
+    void testTaskCompletionTrackerNumericIds() {
+        TaskCompletionTracker tracker = new TaskCompletionTracker();
+
+        // Numeric IDs are tracked without building their string form
+        tracker.registerTask(42L);
+        assertEquals(TaskCompletionTracker.TaskStatus.RUNNING, tracker.getTaskStatus(42L));
+        assertEquals(1, tracker.getRunningTasks());
+
+        // The canonical string form names the same task
+        assertEquals(TaskCompletionTracker.TaskStatus.RUNNING, tracker.getTaskStatus("42"));
+        tracker.markTaskCompleted("42");
+        assertEquals(TaskCompletionTracker.TaskStatus.COMPLETED, tracker.getTaskStatus(42L));
+        assertEquals(0, tracker.getRunningTasks());
+        assertTrue(tracker.areAllTasksCompleted());
+
+        // Non-canonical forms stay string IDs
+        tracker.registerTask("042");
+        assertEquals(TaskCompletionTracker.TaskStatus.COMPLETED, tracker.getTaskStatus(42L));
+        assertEquals(TaskCompletionTracker.TaskStatus.RUNNING, tracker.getTaskStatus("042"));
+        assertEquals(1, tracker.getRunningTasks());
+    }
+
     @Test
     void testTaskSubmissionGuard() {
         TaskSubmissionGuard guard = new TaskSubmissionGuard("TestComponent");
@@ -1,18 +1,48 @@
 package com.example.threadcontroller.service;
 
+import com.example.threadcontroller.model.OverrunPolicy;
+import com.example.threadcontroller.model.QueueDiscipline;
 import com.example.threadcontroller.model.Task;
+import com.example.threadcontroller.model.TaskIdGenerator;
+import com.example.threadcontroller.model.TaskPriority;
+import com.example.threadcontroller.model.TaskStatus;
 import com.example.threadcontroller.model.ThreadPoolConfiguration;
 import com.example.threadcontroller.model.ThreadType;
+import com.example.threadcontroller.model.WaitStrategy;
+import com.example.threadcontroller.util.MetricsCollector;
+import com.example.threadcontroller.util.ShutdownException;
+import com.example.threadcontroller.util.TaskExecutionException;
 import com.example.threadcontroller.util.TestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Unit tests for task services.
@@ -83,6 +113,60 @@ public class TaskServiceTest {
         assertEquals("result", result);
     }
 
+    @Test
+    void testUntrackedSubmission() throws Exception {
+        int tasks = 100;
+        CountDownLatch done = new CountDownLatch(tasks);
+        int submittedBefore = threadControllerService.getController().getSubmittedTasks();
+        for (int i = 0; i < tasks - 1; i++) {
+            threadControllerService.executeUntracked(done::countDown);
+        }
+        threadControllerService.executeUntracked(() -> {
+            done.countDown();
+            throw new IllegalStateException("untracked failure");
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // Outcomes are counted after the task body returns, so wait for the counters to settle
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threadControllerService.getUntrackedCompletedTasks()
+                   + threadControllerService.getUntrackedFailedTasks() < tasks
+               && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(tasks, threadControllerService.getUntrackedSubmittedTasks());
+        assertEquals(tasks - 1, threadControllerService.getUntrackedCompletedTasks());
+        assertEquals(1, threadControllerService.getUntrackedFailedTasks());
+        assertEquals(submittedBefore, threadControllerService.getController().getSubmittedTasks());
+
+        threadControllerService.shutdown();
+        assertThrows(ShutdownException.class,
+                    () -> threadControllerService.executeUntracked(done::countDown));
+    }
+
+    @Test
+    void testUntrackedSubmissionRethrowsErrors() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        threadControllerService.executeUntracked(() -> {
+            done.countDown();
+            throw new Error("untracked error");
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // The error still counts as a failure even though it is not swallowed
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threadControllerService.getUntrackedFailedTasks() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, threadControllerService.getUntrackedFailedTasks());
+        assertEquals(0, threadControllerService.getUntrackedCompletedTasks());
+
+        // The pool replaces the worker the error killed and keeps accepting work
+        CountDownLatch after = new CountDownLatch(1);
+        threadControllerService.executeUntracked(after::countDown);
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     void testSubmitTaskAfterShutdown() {
         threadControllerService.shutdown();
@@ -110,6 +194,9 @@ public class TaskServiceTest {
         assertEquals(com.example.threadcontroller.model.TaskStatus.COMPLETED, taskModel.getStatus());
         assertNotNull(taskModel.getStartTime());
         assertNotNull(taskModel.getCompletionTime());
+        assertTrue(taskModel.getQueueWaitNanos() >= 0);
+        assertTrue(taskModel.getExecutionNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(taskModel.getEndToEndNanos(), taskModel.getQueueWaitNanos() + taskModel.getExecutionNanos());
     }
 
     @Test
@@ -132,6 +219,21 @@ public class TaskServiceTest {
         assertEquals(42, taskModel.getResult());
     }
 
+    @Test
+    void testTaskExecutionServiceRejectsFinishedTask() throws Exception {
+        Task taskModel = new Task();
+        taskExecutionService.executeTask(() -> { }, taskModel).get(5, TimeUnit.SECONDS);
+        assertEquals(TaskStatus.COMPLETED, taskModel.getStatus());
+
+        // Running a finished task again fails the future instead of throwing or touching the task
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Void> again = taskExecutionService.executeTask(() -> ran.set(true), taskModel);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> again.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TaskExecutionException.class, e.getCause());
+        assertFalse(ran.get());
+        assertEquals(TaskStatus.COMPLETED, taskModel.getStatus());
+    }
+
     @Test
     void testTaskQueueManager() throws InterruptedException {
         TaskQueueManager queueManager = new TaskQueueManager(10);
@@ -175,6 +277,902 @@ public class TaskServiceTest {
         assertEquals(newTask.getId(), polledTask.getId());
     }
 
+    @Test
+    void testPriorityQueueOrdersByPriority() throws InterruptedException {
+        TaskQueueManager queueManager = new TaskQueueManager(10, QueueDiscipline.PRIORITY);
+
+        Task batch = new Task("batch");
+        batch.setPriority(TaskPriority.BACKGROUND);
+        Task normal = new Task("normal");
+        Task interactive = new Task("interactive");
+        interactive.setPriority(TaskPriority.HIGH);
+
+        assertTrue(queueManager.addTask(batch));
+        assertTrue(queueManager.addTask(normal));
+        assertTrue(queueManager.addTask(interactive));
+
+        assertEquals("interactive", queueManager.takeTask().getId());
+        assertEquals("normal", queueManager.takeTask().getId());
+        assertEquals("batch", queueManager.takeTask().getId());
+        assertEquals(3, queueManager.getProcessedTasks());
+        assertEquals(10, queueManager.remainingCapacity());
+    }
+
+    @Test
+    void testPriorityQueueAgingPreventsStarvation() throws InterruptedException {
+        PriorityTaskQueue queue = new PriorityTaskQueue(10, 50);
+        TaskQueueManager queueManager = new TaskQueueManager(queue);
+
+        Task old = new Task("old-background");
+        old.setPriority(TaskPriority.BACKGROUND);
+        old.setSubmissionTime(Instant.now().minusMillis(1000));
+        Task fresh = new Task("fresh-critical");
+        fresh.setPriority(TaskPriority.CRITICAL);
+
+        assertTrue(queueManager.addTask(fresh));
+        assertTrue(queueManager.addTask(old));
+
+        assertEquals("old-background", queueManager.takeTask().getId());
+        assertEquals("fresh-critical", queueManager.takeTask().getId());
+    }
+
+    @Test
+    void testPriorityQueueBlockingHandoff() throws Exception {
+        PriorityTaskQueue queue = new PriorityTaskQueue(4, 0);
+        int producers = 4;
+        int perProducer = 2000;
+        AtomicInteger consumed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(producers + 2);
+        try {
+            for (int p = 0; p < producers; p++) {
+                pool.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.put(new Task("t"));
+                    }
+                    return null;
+                });
+            }
+            for (int c = 0; c < 2; c++) {
+                pool.submit(() -> {
+                    while (queue.poll(2, TimeUnit.SECONDS) != null) {
+                        consumed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(producers * perProducer, consumed.get());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testOrderedQueuesRemoveArbitraryTasks() {
+        AbstractTaskQueue[] queues = {
+            new PriorityTaskQueue(10, 0),
+            new DeadlineTaskQueue(10),
+            new FairTaskQueue(10)
+        };
+        for (AbstractTaskQueue queue : queues) {
+            Task first = new Task("first");
+            Task second = new Task("second");
+            Task third = new Task("third");
+            assertTrue(queue.offer(first));
+            assertTrue(queue.offer(second));
+            assertTrue(queue.offer(third));
+
+            assertTrue(queue.remove(second));
+            assertFalse(queue.remove(second));
+            assertEquals(2, queue.size());
+            assertTrue(queue.removeIf(task -> "third".equals(task.getId())));
+            assertEquals(1, queue.size());
+            assertEquals(9, queue.remainingCapacity());
+            assertEquals("first", queue.poll().getId());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    void testRingBufferQueueBackend() throws InterruptedException {
+        TaskQueueManager queueManager = new TaskQueueManager(new RingBufferTaskQueue(3));
+
+        Task first = new Task("first");
+        Task second = new Task("second");
+        assertTrue(queueManager.addTask(first));
+        assertTrue(queueManager.addTask(second));
+        assertTrue(queueManager.addTask(new Task("third")));
+        assertFalse(queueManager.addTask(new Task("overflow")));
+
+        assertEquals(3, queueManager.getQueuedTasks());
+        assertEquals(0, queueManager.remainingCapacity());
+        assertEquals("first", queueManager.takeTask().getId());
+        assertEquals("second", queueManager.pollTask(100, TimeUnit.MILLISECONDS).getId());
+        assertEquals(1, queueManager.getQueuedTasks());
+        assertEquals(2, queueManager.getProcessedTasks());
+        assertEquals(2, queueManager.remainingCapacity());
+    }
+
+    @Test
+    void testRingBufferEmptyBatch() {
+        RingBufferTaskQueue queue = new RingBufferTaskQueue(4);
+        assertEquals(0, queue.offerBatch(Collections.emptyList()));
+
+        assertTrue(queue.offer(new Task("only")));
+        assertEquals(0, queue.offerBatch(Collections.emptyList()));
+        assertEquals(1, queue.size());
+        assertEquals("only", queue.poll().getId());
+    }
+
+    @Test
+    void testRingBufferBlockingHandoff() throws Exception {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            RingBufferTaskQueue queue = new RingBufferTaskQueue(8, strategy, strategy);
+            // Spinning threads only make progress on their own core, so never run more than there are
+            boolean spinning = strategy == WaitStrategy.BUSY_SPIN;
+            int threads = spinning ? Math.max(2, Math.min(5, Runtime.getRuntime().availableProcessors())) : 5;
+            int consumers = threads / 2;
+            int producers = threads - consumers;
+            int perProducer = spinning ? 1000 : 5000;
+            AtomicInteger consumed = new AtomicInteger();
+            Set<Task> seen = ConcurrentHashMap.newKeySet();
+            ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+            try {
+                for (int p = 0; p < producers; p++) {
+                    int producer = p;
+                    pool.submit(() -> {
+                        for (int i = 0; i < perProducer; i++) {
+                            queue.put(new Task("t-" + producer + "-" + i));
+                        }
+                        return null;
+                    });
+                }
+                for (int c = 0; c < consumers; c++) {
+                    pool.submit(() -> {
+                        Task task;
+                        while ((task = queue.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                            seen.add(task);
+                            consumed.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                pool.shutdown();
+                assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals(producers * perProducer, consumed.get(), "lost tasks with " + strategy);
+            assertEquals(producers * perProducer, seen.size(), "duplicated tasks with " + strategy);
+            assertEquals(0, queue.size());
+            assertEquals(8, queue.remainingCapacity());
+        }
+    }
+
+    @Test
+    void testBatchAddAndDrain() throws InterruptedException {
+        List<TaskQueueManager> managers = Arrays.asList(
+            new TaskQueueManager(5),
+            new TaskQueueManager(new RingBufferTaskQueue(5)),
+            new TaskQueueManager(5, QueueDiscipline.DEADLINE));
+
+        for (TaskQueueManager queueManager : managers) {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                batch.add(new Task("batch-" + i));
+            }
+
+            assertEquals(5, queueManager.addAll(batch));
+            assertEquals(5, queueManager.getQueuedTasks());
+            assertEquals(0, queueManager.remainingCapacity());
+
+            List<Task> buffer = new ArrayList<>();
+            assertEquals(3, queueManager.drainTo(buffer, 3, 100, TimeUnit.MILLISECONDS));
+            assertEquals("batch-0", buffer.get(0).getId());
+            assertEquals("batch-2", buffer.get(2).getId());
+            assertEquals(2, queueManager.drainTo(buffer, 10, 100, TimeUnit.MILLISECONDS));
+            assertEquals("batch-4", buffer.get(4).getId());
+            assertEquals(0, queueManager.drainTo(buffer, 10, 50, TimeUnit.MILLISECONDS));
+
+            assertEquals(0, queueManager.getQueuedTasks());
+            assertEquals(5, queueManager.getProcessedTasks());
+            assertEquals(5, queueManager.remainingCapacity());
+        }
+    }
+
+    @Test
+    void testBatchDrainWaitsForFirstTask() throws Exception {
+        TaskQueueManager queueManager = new TaskQueueManager(new RingBufferTaskQueue(64));
+        CompletableFuture<Integer> drained = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queueManager.drainTo(new ArrayList<>(), 16, 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Thread.sleep(50);
+        assertTrue(queueManager.addTask(new Task("late")));
+        assertEquals(1, drained.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOverflowSpillsToDiskAndRefillsInOrder() throws Exception {
+        Path directory = Files.createTempDirectory("task-spill");
+        MetricsCollector metrics = new MetricsCollector();
+        TaskSpillStore store = new TaskSpillStore(directory, 1024, metrics);
+        TaskQueueManager queueManager = new TaskQueueManager(
+            new LinkedBlockingQueue<>(2), metrics, store);
+        try {
+            for (int i = 0; i < 50; i++) {
+                Task task = new Task("spill-" + i);
+                task.setPriority(TaskPriority.HIGH);
+                assertTrue(queueManager.addTask(task));
+            }
+            assertEquals(50, queueManager.getQueuedTasks());
+            assertEquals(48, queueManager.getSpilledTasks());
+            assertTrue(store.getSegmentCount() > 1, "small segments should roll over");
+            assertTrue(metrics.getSpilledBytes() > 0);
+
+            for (int i = 0; i < 50; i++) {
+                Task task = queueManager.pollTask(1, TimeUnit.SECONDS);
+                assertEquals("spill-" + i, task.getId());
+                assertEquals(TaskPriority.HIGH, task.getPriority());
+            }
+            assertNull(queueManager.pollTask(10, TimeUnit.MILLISECONDS));
+            assertEquals(0, queueManager.getQueuedTasks());
+            assertEquals(48, metrics.getRefilledTasks());
+            assertEquals(0, store.getPendingBytes());
+            assertTrue(store.getSegmentCount() <= 1, "drained segments should be deleted");
+        } finally {
+            queueManager.shutdown();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testTaskDescriptorCodecRoundTrip() {
+        Task task = new Task("codec");
+        task.setPriority(TaskPriority.LOW);
+        task.setDeadline(Instant.now().plusSeconds(30));
+        task.setTenant("team-a");
+        ByteBuffer buffer = ByteBuffer.allocate(TaskDescriptorCodec.encodedSize(task));
+
+        TaskDescriptorCodec.encode(task, buffer);
+        buffer.flip();
+        Task decoded = TaskDescriptorCodec.decode(buffer);
+
+        assertEquals(task.getId(), decoded.getId());
+        assertEquals(task.getSubmissionTime(), decoded.getSubmissionTime());
+        assertEquals(task.getPriority(), decoded.getPriority());
+        assertEquals(task.getDeadline(), decoded.getDeadline());
+        assertEquals(task.getTenant(), decoded.getTenant());
+
+        Task numeric = new Task(123L);
+        buffer = ByteBuffer.allocate(TaskDescriptorCodec.encodedSize(numeric));
+        TaskDescriptorCodec.encode(numeric, buffer);
+        buffer.flip();
+        assertEquals(123L, TaskDescriptorCodec.decode(buffer).getNumericId());
+    }
+
+    @Test
+    void testJournalRecoversIncompleteTasks() throws Exception {
+        Path directory = Files.createTempDirectory("task-journal");
+        TaskQueueManager queueManager = new TaskQueueManager(new LinkedBlockingQueue<>(),
+            new MetricsCollector(), null, new TaskJournal(directory));
+        assertTrue(queueManager.addTask(new Task("done")));
+        assertTrue(queueManager.addTask(new Task("running")));
+        assertTrue(queueManager.addTask(new Task("queued")));
+        queueManager.markCompleted(queueManager.takeTask());
+        assertEquals("running", queueManager.takeTask().getId());
+        queueManager.shutdown();
+
+        TaskJournal reopened = new TaskJournal(directory);
+        TaskQueueManager recovered = new TaskQueueManager(new LinkedBlockingQueue<>(),
+            new MetricsCollector(), null, reopened);
+        try {
+            assertEquals(2, reopened.getRecoveredTasks().size());
+            assertEquals(2, recovered.getQueuedTasks());
+            assertEquals("running", recovered.takeTask().getId());
+            assertEquals("queued", recovered.takeTask().getId());
+        } finally {
+            recovered.shutdown();
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void testJournalRecoveryAdvancesSequentialIds() throws Exception {
+        Path directory = Files.createTempDirectory("task-journal");
+        long recoveredId = TaskIdGenerator.nextId() + 1_000_000;
+        TaskJournal journal = new TaskJournal(directory);
+        journal.recordSubmit(new Task(recoveredId));
+        journal.close();
+
+        TaskJournal reopened = new TaskJournal(directory);
+        try {
+            assertEquals(recoveredId, reopened.getRecoveredTasks().get(0).getNumericId());
+            // A restarted process must not hand the recovered ID out again
+            assertTrue(TaskIdGenerator.nextId() > recoveredId);
+        } finally {
+            reopened.close();
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void testJournalGroupCommitRotatesAndCompacts() throws Exception {
+        Path directory = Files.createTempDirectory("task-journal");
+        TaskJournal journal = new TaskJournal(directory, 512, 1);
+        try {
+            for (int i = 0; i < 200; i++) {
+                Task task = new Task("task-" + i);
+                journal.recordSubmit(task);
+                if (i % 20 != 0) {
+                    journal.recordComplete(task.getId());
+                }
+                if (i % 10 == 9) {
+                    journal.sync();
+                }
+            }
+            journal.sync();
+            assertEquals(400 - 10, journal.getCommittedRecords());
+            assertTrue(journal.getCommitCount() < journal.getCommittedRecords(), "records should share fsyncs");
+            assertTrue(journal.getSegmentCount() <= 5, "sealed segments should be compacted");
+        } finally {
+            journal.close();
+        }
+
+        TaskJournal reopened = new TaskJournal(directory);
+        try {
+            assertEquals(10, reopened.getRecoveredTasks().size());
+            assertEquals("task-0", reopened.getRecoveredTasks().get(0).getId());
+            assertEquals("task-180", reopened.getRecoveredTasks().get(9).getId());
+        } finally {
+            reopened.close();
+            deleteDirectory(directory);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testCoDelAbsorbsBurstsAndDropsStandingQueue() {
+        CoDelController controller = new CoDelController(5, 100, TimeUnit.MILLISECONDS);
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+
+        // A burst that drains within one interval is never dropped
+        assertFalse(controller.shouldDrop(20 * ms, 0, false));
+        assertFalse(controller.shouldDrop(20 * ms, 50 * ms, false));
+        assertFalse(controller.shouldDrop(1 * ms, 60 * ms, true));
+
+        // A standing queue above target for a full interval starts dropping
+        assertFalse(controller.shouldDrop(20 * ms, 200 * ms, false));
+        assertTrue(controller.shouldDrop(20 * ms, 300 * ms, false));
+        assertTrue(controller.isDropping());
+        assertFalse(controller.shouldDrop(20 * ms, 310 * ms, false));
+        assertTrue(controller.shouldDrop(20 * ms, 400 * ms, false));
+        // The next drop comes sooner: interval / sqrt(2)
+        assertTrue(controller.shouldDrop(20 * ms, 471 * ms, false));
+
+        assertFalse(controller.shouldDrop(1 * ms, 480 * ms, false));
+        assertFalse(controller.isDropping());
+        assertEquals(3L, controller.getDropCount());
+    }
+
+    @Test
+    void testCoDelShedsTasksFromStandingQueue() throws InterruptedException {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(new LinkedBlockingQueue<>(), metrics);
+        queueManager.setCoDelController(new CoDelController(1, 10, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < 40; i++) {
+            assertTrue(queueManager.addTask(new Task("codel-" + i)));
+        }
+        Thread.sleep(20);
+        int taken = 0;
+        Task task;
+        while ((task = queueManager.pollTask(10, TimeUnit.MILLISECONDS)) != null) {
+            taken++;
+            Thread.sleep(2);
+        }
+
+        assertTrue(metrics.getShedTasks("codel") > 0, "a standing queue should be shed");
+        assertEquals(40, taken + metrics.getShedTasks("codel"));
+        assertEquals(0, queueManager.getQueuedTasks());
+    }
+
+    @Test
+    void testKeyedTasksRunInOrderPerKey() throws Exception {
+        int keys = 4;
+        int perKey = 200;
+        Map<Integer, List<Integer>> observed = new ConcurrentHashMap<>();
+        AtomicInteger concurrentPerKey = new AtomicInteger();
+        Map<Integer, AtomicInteger> running = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < perKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                int key = k;
+                int seq = i;
+                futures.add(threadControllerService.submitTask(key, () -> {
+                    AtomicInteger active =
+                        running.computeIfAbsent(key, x -> new AtomicInteger());
+                    if (active.incrementAndGet() > 1) {
+                        concurrentPerKey.incrementAndGet();
+                    }
+                    observed.computeIfAbsent(key, x -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+                    active.decrementAndGet();
+                }));
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(0, concurrentPerKey.get());
+        for (int k = 0; k < keys; k++) {
+            List<Integer> seqs = observed.get(k);
+            assertEquals(perKey, seqs.size());
+            for (int i = 0; i < perKey; i++) {
+                assertEquals(i, seqs.get(i));
+            }
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threadControllerService.getActiveKeyCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, threadControllerService.getActiveKeyCount());
+    }
+
+    @Test
+    void testKeyedFollowersRunAfterShutdown() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> head = threadControllerService.submitTask("key", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add(0);
+        });
+        List<CompletableFuture<Void>> followers = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            int seq = i;
+            followers.add(threadControllerService.submitTask("key", () -> {
+                order.add(seq);
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        threadControllerService.shutdown();
+        release.countDown();
+
+        head.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> follower : followers) {
+            follower.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3), order);
+        assertEquals(0, threadControllerService.getActiveKeyCount());
+    }
+
+    @Test
+    void testKeyedCallableReturnsResult() throws Exception {
+        CompletableFuture<String> future = threadControllerService.submitTask("account-1", () -> "done");
+
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> threadControllerService.submitTask(null, () -> { }));
+    }
+
+    @Test
+    void testDeadlineQueueOrdersByEarliestDeadline() throws InterruptedException {
+        TaskQueueManager queueManager = new TaskQueueManager(10, QueueDiscipline.DEADLINE);
+        Instant now = Instant.now();
+
+        Task noDeadline = new Task("no-deadline");
+        Task late = new Task("late");
+        late.setDeadline(now.plusSeconds(60));
+        Task early = new Task("early");
+        early.setDeadline(now.plusSeconds(10));
+
+        assertTrue(queueManager.addTask(noDeadline));
+        assertTrue(queueManager.addTask(late));
+        assertTrue(queueManager.addTask(early));
+
+        assertEquals("early", queueManager.takeTask().getId());
+        assertEquals("late", queueManager.takeTask().getId());
+        assertEquals("no-deadline", queueManager.takeTask().getId());
+    }
+
+    @Test
+    void testExpiredTasksAreShedAtDequeue() throws InterruptedException {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(10, QueueDiscipline.DEADLINE, metrics);
+
+        Task expired = new Task("expired");
+        expired.setDeadline(Instant.now().minusMillis(1));
+        Task live = new Task("live");
+        live.setDeadline(Instant.now().plusSeconds(60));
+
+        assertTrue(queueManager.addTask(expired));
+        assertTrue(queueManager.addTask(live));
+
+        assertEquals("live", queueManager.pollTask(1, TimeUnit.SECONDS).getId());
+        assertNull(queueManager.pollTask(50, TimeUnit.MILLISECONDS));
+        assertEquals(TaskStatus.FAILED, expired.getStatus());
+        assertNotNull(expired.getException());
+        assertEquals(1, metrics.getShedTasks());
+        assertEquals(1, queueManager.getProcessedTasks());
+        assertEquals(0, queueManager.getQueuedTasks());
+    }
+
+    @Test
+    void testFairQueueSharesByWeight() throws InterruptedException {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(100, QueueDiscipline.FAIR, metrics);
+        queueManager.setTenantWeight("heavy", 3);
+
+        // The light tenant floods the queue first
+        for (int i = 0; i < 40; i++) {
+            Task task = new Task("light-" + i);
+            task.setTenant("light");
+            assertTrue(queueManager.addTask(task));
+        }
+        for (int i = 0; i < 30; i++) {
+            Task task = new Task("heavy-" + i);
+            task.setTenant("heavy");
+            assertTrue(queueManager.addTask(task));
+        }
+
+        int heavy = 0;
+        for (int i = 0; i < 40; i++) {
+            if ("heavy".equals(queueManager.takeTask().getTenant())) {
+                heavy++;
+            }
+        }
+        assertEquals(30, heavy);
+        assertEquals(30, metrics.getTenantDequeuedTasks("heavy"));
+        assertEquals(10, metrics.getTenantDequeuedTasks("light"));
+
+        // With the heavy tenant idle, the light tenant gets everything
+        for (int i = 0; i < 30; i++) {
+            assertEquals("light", queueManager.takeTask().getTenant());
+        }
+        assertTrue(queueManager.isEmpty());
+        assertTrue(metrics.getTenantAverageWaitMillis("light") >= 0.0);
+        assertThrows(IllegalStateException.class, () -> taskQueueManager.setTenantWeight("heavy", 2));
+    }
+
+    @Test
+    void testOffHeapQueueHandsOutFlyweightViews() throws Exception {
+        try (OffHeapTaskQueue queue = new OffHeapTaskQueue(2)) {
+            assertEquals(2L * OffHeapTaskQueue.RECORD_BYTES, queue.getOffHeapBytes());
+            assertTrue(queue.offer(7, 1L, 2L, 3L, 4L));
+            assertTrue(queue.offer(8, 5L));
+            assertFalse(queue.offer(9, 6L));
+
+            TaskRecordView view = queue.newView();
+            assertTrue(queue.poll(view));
+            assertEquals(7, view.getOpcode());
+            assertEquals(4L, view.getArg(3));
+            assertThrows(IllegalStateException.class, () -> queue.poll(view));
+            // The slot stays reserved until the view is released
+            assertFalse(queue.offer(9, 6L));
+            view.release();
+            assertTrue(queue.offer(9, 6L));
+
+            assertTrue(queue.poll(view, 1, TimeUnit.SECONDS));
+            assertEquals(8, view.getOpcode());
+            assertEquals(5L, view.getArg(0));
+            view.release();
+            assertThrows(IllegalStateException.class, view::getOpcode);
+        }
+
+        try (OffHeapTaskQueue queue = new OffHeapTaskQueue(64)) {
+            int perProducer = 10_000;
+            Thread[] producers = new Thread[2];
+            for (int p = 0; p < producers.length; p++) {
+                producers[p] = new Thread(() -> {
+                    try {
+                        for (int i = 1; i <= perProducer; i++) {
+                            queue.put(1, i, 0L, 0L, 0L);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                producers[p].start();
+            }
+            TaskRecordView view = queue.newView();
+            long sum = 0;
+            for (int i = 0; i < perProducer * producers.length; i++) {
+                assertTrue(queue.poll(view, 5, TimeUnit.SECONDS));
+                sum += view.getArg(0);
+                view.release();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            assertEquals(2L * perProducer * (perProducer + 1) / 2, sum);
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    void testAdaptiveLifoUnderOverload() throws InterruptedException {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(10, QueueDiscipline.ADAPTIVE_LIFO, metrics);
+
+        // Below the depth threshold of half capacity the queue stays FIFO
+        assertTrue(queueManager.addTask(new Task("a")));
+        assertTrue(queueManager.addTask(new Task("b")));
+        assertEquals("a", queueManager.takeTask().getId());
+        assertEquals("b", queueManager.takeTask().getId());
+        assertEquals(0, metrics.getLifoSwitches());
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(queueManager.addTask(new Task("t" + i)));
+        }
+        for (int i = 5; i >= 1; i--) {
+            assertEquals("t" + i, queueManager.takeTask().getId());
+        }
+        // Draining the queue is not enough on its own to switch back
+        assertEquals("t0", queueManager.takeTask().getId());
+        assertEquals(1, metrics.getLifoSwitches());
+        assertEquals(0, metrics.getFifoSwitches());
+
+        // Once the queue has stayed calm for the wait threshold it returns to FIFO
+        Thread.sleep(150);
+        assertTrue(queueManager.addTask(new Task("after-calm")));
+        assertEquals("after-calm", queueManager.takeTask().getId());
+        assertEquals(1, metrics.getFifoSwitches());
+        assertNotNull(metrics.getLastModeSwitchTime());
+        assertTrue(metrics.getMetricsReport().contains("Queue mode switches: to LIFO=1"));
+    }
+
+    @Test
+    void testTimingWheelFiresAcrossLevels() throws Exception {
+        List<String> fired = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        // A 100us tick makes level 0 span about 51ms, so the later timers have to cascade down
+        HierarchicalTimingWheel wheel = HierarchicalTimingWheel.start(100, TimeUnit.MICROSECONDS, Runnable::run);
+        try {
+            long start = System.nanoTime();
+            long[] firedAfterMillis = new long[3];
+            wheel.schedule(() -> { firedAfterMillis[2] = (System.nanoTime() - start) / 1_000_000; fired.add("late"); done.countDown(); },
+                120, TimeUnit.MILLISECONDS);
+            wheel.schedule(() -> { firedAfterMillis[0] = (System.nanoTime() - start) / 1_000_000; fired.add("soon"); done.countDown(); },
+                5, TimeUnit.MILLISECONDS);
+            wheel.schedule(() -> { firedAfterMillis[1] = (System.nanoTime() - start) / 1_000_000; fired.add("middle"); done.countDown(); },
+                60, TimeUnit.MILLISECONDS);
+            TimerHandle cancelled = wheel.schedule(() -> fired.add("cancelled"), 30, TimeUnit.MILLISECONDS);
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("soon", "middle", "late"), fired);
+            assertTrue(firedAfterMillis[0] >= 5 && firedAfterMillis[1] >= 60 && firedAfterMillis[2] >= 120);
+            assertEquals(0, wheel.getPendingTimerCount());
+
+            wheel.schedule(() -> fired.add("never"), 1, TimeUnit.HOURS);
+            assertEquals(1, wheel.stop().size());
+            assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void testScheduledAndPeriodicTasks() throws Exception {
+        CompletableFuture<String> delayed = threadControllerService.schedule(() -> "delayed", 20, TimeUnit.MILLISECONDS);
+        assertEquals("delayed", delayed.get(2, TimeUnit.SECONDS));
+
+        AtomicBoolean ran = new AtomicBoolean();
+        Runnable never = () -> ran.set(true);
+        CompletableFuture<Void> cancelled = threadControllerService.schedule(never, 1, TimeUnit.HOURS);
+        assertEquals(1, threadControllerService.getPendingTimerCount());
+        assertTrue(cancelled.cancel(false));
+        assertFalse(ran.get());
+
+        AtomicInteger fixedRateRuns = new AtomicInteger();
+        CompletableFuture<Void> fixedRate = threadControllerService.scheduleAtFixedRate(
+            fixedRateRuns::incrementAndGet, 0, 10, TimeUnit.MILLISECONDS);
+        AtomicInteger fixedDelayRuns = new AtomicInteger();
+        CompletableFuture<Void> fixedDelay = threadControllerService.scheduleWithFixedDelay(
+            fixedDelayRuns::incrementAndGet, 0, 10, TimeUnit.MILLISECONDS);
+
+        // A run that overruns five periods skips the missed runs instead of replaying them
+        AtomicInteger skippingRuns = new AtomicInteger();
+        long skippingStart = System.nanoTime();
+        CompletableFuture<Void> skipping = threadControllerService.scheduleAtFixedRate(() -> {
+            if (skippingRuns.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 0, 20, TimeUnit.MILLISECONDS, OverrunPolicy.SKIP);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && (fixedRateRuns.get() < 3 || fixedDelayRuns.get() < 3)) {
+            Thread.sleep(5);
+        }
+        assertTrue(fixedRateRuns.get() >= 3);
+        assertTrue(fixedDelayRuns.get() >= 3);
+
+        Thread.sleep(150);
+        assertTrue(fixedRate.cancel(false));
+        assertTrue(fixedDelay.cancel(false));
+        assertTrue(skipping.cancel(false));
+        // Catching up would have run once per elapsed period; skipping drops the four periods the first run overran
+        long elapsedPeriods = (System.nanoTime() - skippingStart) / TimeUnit.MILLISECONDS.toNanos(20);
+        assertTrue(skippingRuns.get() <= elapsedPeriods - 2, "skipped runs were replayed: " + skippingRuns.get());
+        int runsAtCancel = fixedRateRuns.get();
+        Thread.sleep(50);
+        assertTrue(fixedRateRuns.get() <= runsAtCancel + 1);
+    }
+
+    @Test
+    void testQueueRejectionPolicies() throws Exception {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(1, QueueDiscipline.FIFO, metrics);
+        assertTrue(queueManager.submit(new Task("first")).toCompletableFuture().isDone());
+
+        // Abort is the default
+        assertThrows(RejectedExecutionException.class, () -> queueManager.submit(new Task("aborted")));
+
+        queueManager.setRejectionPolicy(RejectionPolicies.blockWithTimeout(20, TimeUnit.MILLISECONDS));
+        assertThrows(RejectedExecutionException.class, () -> queueManager.submit(new Task("timed-out")));
+        assertEquals(1, queueManager.getQueuedTasks());
+
+        queueManager.setRejectionPolicy(RejectionPolicies.dropOldest());
+        Task first = queueManager.takeTask();
+        queueManager.submit(new Task("old"));
+        queueManager.submit(new Task("new"));
+        assertEquals(1, metrics.getShedTasks("drop-oldest"));
+        assertEquals("new", queueManager.takeTask().getId());
+
+        queueManager.setRejectionPolicy(RejectionPolicies.async());
+        queueManager.submit(new Task("queued"));
+        CompletableFuture<Void> parked = queueManager.submit(new Task("parked")).toCompletableFuture();
+        assertFalse(parked.isDone());
+        assertEquals("queued", queueManager.takeTask().getId());
+        parked.get(1, TimeUnit.SECONDS);
+        assertEquals("parked", queueManager.takeTask().getId());
+        assertEquals("first", first.getId());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> queueManager.setRejectionPolicy(RejectionPolicies.callerRuns()));
+
+        // A target that cannot run its items gets a rejection from the caller-runs policy
+        AdmissionTarget<Task> descriptors = new AdmissionTarget<>() {
+            @Override
+            public boolean tryAdmit(Task task) {
+                return false;
+            }
+
+            @Override
+            public boolean tryAdmit(Task task, long timeout, TimeUnit unit) {
+                return false;
+            }
+
+            @Override
+            public boolean dropOldest() {
+                return false;
+            }
+
+            @Override
+            public CompletionStage<Void> awaitCapacity() {
+                return new CompletableFuture<>();
+            }
+        };
+        RejectionPolicy<Task> callerRuns = RejectionPolicies.callerRuns();
+        assertThrows(RejectedExecutionException.class, () -> callerRuns.rejected(new Task("inline"), descriptors));
+    }
+
+    @Test
+    void testDropOldestFollowsSubmissionOrder() throws Exception {
+        MetricsCollector metrics = new MetricsCollector();
+        TaskQueueManager queueManager = new TaskQueueManager(2, QueueDiscipline.PRIORITY, metrics);
+        queueManager.setRejectionPolicy(RejectionPolicies.dropOldest());
+
+        Task oldest = new Task("oldest");
+        oldest.setPriority(TaskPriority.BACKGROUND);
+        oldest.setSubmissionTime(Instant.now().minusMillis(100));
+        Task urgent = new Task("urgent");
+        urgent.setPriority(TaskPriority.CRITICAL);
+        queueManager.submit(oldest);
+        queueManager.submit(urgent);
+        queueManager.submit(new Task("newest"));
+
+        assertEquals(1, metrics.getShedTasks("drop-oldest"));
+        assertEquals(TaskStatus.FAILED, oldest.getStatus());
+        assertEquals("urgent", queueManager.takeTask().getId());
+        assertEquals("newest", queueManager.takeTask().getId());
+    }
+
+    @Test
+    void testSubmissionRejectionPolicies() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+
+            TaskSubmissionService callerRuns = new TaskSubmissionService(executor, 1, RejectionPolicies.callerRuns());
+            CompletableFuture<Void> blocker = callerRuns.submitTask(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Thread> inline = callerRuns.submitTask(() -> Thread.currentThread());
+            assertSame(caller, inline.get(1, TimeUnit.SECONDS));
+            assertEquals(1, callerRuns.getPendingTaskCount());
+
+            TaskSubmissionService dropOldest = new TaskSubmissionService(executor, 2, RejectionPolicies.dropOldest());
+            CompletableFuture<String> oldest = dropOldest.submitTask(() -> "oldest");
+            CompletableFuture<String> middle = dropOldest.submitTask(() -> "middle");
+            CompletableFuture<String> newest = dropOldest.submitTask(() -> "newest");
+            ExecutionException dropped = assertThrows(ExecutionException.class, () -> oldest.get(1, TimeUnit.SECONDS));
+            assertTrue(dropped.getCause() instanceof RejectedExecutionException);
+
+            TaskSubmissionService async = new TaskSubmissionService(executor, 1, RejectionPolicies.async());
+            CompletableFuture<String> running = async.submitTask(() -> "running");
+            CompletableFuture<String> parked = async.submitTask(() -> "parked");
+            assertEquals(1, async.getPendingTaskCount());
+
+            release.countDown();
+            blocker.get(1, TimeUnit.SECONDS);
+            assertEquals("middle", middle.get(1, TimeUnit.SECONDS));
+            assertEquals("newest", newest.get(1, TimeUnit.SECONDS));
+            assertEquals("running", running.get(1, TimeUnit.SECONDS));
+            assertEquals("parked", parked.get(1, TimeUnit.SECONDS));
+            assertEquals(0, async.getPendingTaskCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBoundedFixedPoolRejects() throws Exception {
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration();
+        config.setCorePoolSize(1);
+        config.setMaximumPoolSize(1);
+        config.setQueueCapacity(1);
+        ExecutorService executor = ExecutorFactory.createExecutor(config);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> { });
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testTaskAdapter() {
         Runnable runnable = () -> System.out.println("Test runnable");
@@ -0,0 +1,73 @@
+package com.example.threadcontroller.service;
+
+import com.example.threadcontroller.model.ThreadPoolConfiguration;
+import com.example.threadcontroller.model.ThreadType;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-task cost of {@link ThreadControllerService#submitTask(Runnable)} with
+ * {@link ThreadControllerService#executeUntracked(Runnable)} for empty tasks.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes
+ * com.example.threadcontroller.service.UntrackedSubmissionBenchmark [tasks] [rounds]}. The
+ * controller logs to standard output, so output is discarded while measuring; the tracked numbers
+ * therefore include message formatting but not console I/O.</p>
+ */
+public class UntrackedSubmissionBenchmark {
+    private static final int DEFAULT_TASKS = 200_000;
+    private static final int DEFAULT_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+
+        ThreadPoolConfiguration config = new ThreadPoolConfiguration();
+        config.setCorePoolSize(4);
+        config.setMaximumPoolSize(4);
+        config.setThreadType(ThreadType.PLATFORM);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ThreadControllerService service = new ThreadControllerService(config);
+        try {
+            // The first round of each mode is warm-up and is not reported
+            for (int round = 0; round <= rounds; round++) {
+                long tracked = run(service, tasks, true);
+                long untracked = run(service, tasks, false);
+                if (round > 0) {
+                    console.printf("round %d: tracked %.1f ns/task, untracked %.1f ns/task%n",
+                                   round, (double) tracked / tasks, (double) untracked / tasks);
+                }
+            }
+        } finally {
+            service.shutdown();
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Submits empty tasks and waits for all of them to run.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(ThreadControllerService service, int tasks, boolean tracked) throws Exception {
+        CountDownLatch done = new CountDownLatch(tasks);
+        Runnable task = done::countDown;
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            if (tracked) {
+                service.submitTask(task);
+            } else {
+                service.executeUntracked(task);
+            }
+        }
+        if (!done.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Benchmark tasks did not finish");
+        }
+        return System.nanoTime() - start;
+    }
+}